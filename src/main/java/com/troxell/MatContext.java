@@ -2,6 +2,8 @@ package com.troxell;
 
 import java.text.DecimalFormat;
 
+import com.troxell.functions.Truncation;
+
 public final class MatContext {
 
     /**
@@ -26,6 +28,35 @@ public final class MatContext {
         return formatter;
     }
 
+    /**
+     * <code>ThreadLocal&lt;Truncation&gt;</code>: The truncation applied by
+     * polynomial arithmetic on each thread when none is given explicitly.
+     */
+    private static final ThreadLocal<Truncation> truncation = ThreadLocal.withInitial(() -> Truncation.NONE);
+
+    /**
+     * Retrieves the truncation applied by polynomial arithmetic on the current
+     * thread when none is given explicitly.
+     * 
+     * @return <code>Truncation</code>: The current truncation.
+     */
+    public static final Truncation getTruncation() {
+
+        return truncation.get();
+    }
+
+    /**
+     * Sets the truncation applied by polynomial arithmetic on the current thread
+     * when none is given explicitly.
+     * 
+     * @param t <code>Truncation</code>: The truncation to apply, or
+     *          <code>null</code> to keep every term.
+     */
+    public static final void setTruncation(Truncation t) {
+
+        truncation.set(t == null ? Truncation.NONE : t);
+    }
+
     private static final String[] vars = { "x", "y", "z", "t" };
 
     public static final String getVar(int i) {
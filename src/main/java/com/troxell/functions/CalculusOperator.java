@@ -0,0 +1,242 @@
+package com.troxell.functions;
+
+import java.util.Arrays;
+
+/**
+ * <code>CalculusOperator</code>: A class representing a chain of derivatives
+ * and integrals, which is recorded lazily and applied to a function in a single
+ * pass. Operations along different modes commute, so the chain is kept as the
+ * sequence of orders along each mode; applying it gives every coefficient one
+ * combined factorial weight and index shift, instead of building an operator
+ * matrix and an intermediate function for each step.
+ */
+public final class CalculusOperator {
+
+    /**
+     * <code>CalculusOperator</code>: The operator which leaves every function
+     * unchanged.
+     */
+    public static final CalculusOperator IDENTITY = new CalculusOperator(new int[0][]);
+
+    /**
+     * <code>int[][]</code>: The orders applied along each mode in sequence, where
+     * positive orders are integrals and negative orders are derivatives.
+     */
+    private final int[][] steps;
+
+    /**
+     * Creates a new instance of the <code>CalculusOperator</code> class.
+     *
+     * @param steps <code>int[][]</code>: The orders applied along each mode.
+     */
+    private CalculusOperator(int[][] steps) {
+
+        this.steps = steps;
+    }
+
+    /**
+     * Creates the operator which follows this operator with a derivative.
+     *
+     * @param mode <code>int</code>: The mode to differentiate along.
+     * @param n    <code>int</code>: The order of the derivative.
+     * @return <code>CalculusOperator</code>: The created operator, or
+     *         <code>null</code> if the mode or order is negative.
+     */
+    public final CalculusOperator differ(int mode, int n) {
+
+        if (n < 0) {
+
+            return null;
+        }
+
+        return then(mode, -n);
+    }
+
+    /**
+     * Creates the operator which follows this operator with an integral.
+     *
+     * @param mode <code>int</code>: The mode to integrate along.
+     * @param n    <code>int</code>: The order of the integral.
+     * @return <code>CalculusOperator</code>: The created operator, or
+     *         <code>null</code> if the mode or order is negative.
+     */
+    public final CalculusOperator integ(int mode, int n) {
+
+        if (n < 0) {
+
+            return null;
+        }
+
+        return then(mode, n);
+    }
+
+    /**
+     * Creates the operator which follows this operator with a step along a mode,
+     * merging it into the previous step if they are of the same kind.
+     *
+     * @param mode  <code>int</code>: The mode of the step.
+     * @param order <code>int</code>: The order of the step, which is positive
+     *              for an integral and negative for a derivative.
+     * @return <code>CalculusOperator</code>: The created operator, or
+     *         <code>null</code> if the mode is negative.
+     */
+    private CalculusOperator then(int mode, int order) {
+
+        if (mode < 0) {
+
+            return null;
+        }
+
+        if (order == 0) {
+
+            return this;
+        }
+
+        int[][] newSteps = Arrays.copyOf(steps, Math.max(steps.length, mode + 1));
+        for (int i = steps.length; i < newSteps.length; i++) {
+
+            newSteps[i] = new int[0];
+        }
+
+        int[] modeSteps = newSteps[mode];
+        int last = modeSteps.length - 1;
+        if (last >= 0 && (modeSteps[last] < 0) == (order < 0)) {
+
+            modeSteps = modeSteps.clone();
+            modeSteps[last] += order;
+        } else {
+
+            modeSteps = Arrays.copyOf(modeSteps, modeSteps.length + 1);
+            modeSteps[last + 1] = order;
+        }
+
+        newSteps[mode] = modeSteps;
+        return new CalculusOperator(newSteps);
+    }
+
+    /**
+     * Applies this <code>CalculusOperator</code> instance to a function in a
+     * single pass over its coefficients. Unlike a chain of calls to
+     * <code>TensorFunction.integ</code>, integrating along a mode beyond the
+     * arguments of the function introduces that argument.
+     *
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction apply(TensorFunction function) {
+
+        return function.transform(this);
+    }
+
+    /**
+     * Retrieves the number of modes this <code>CalculusOperator</code> instance
+     * acts along, including any modes between them which it leaves unchanged.
+     *
+     * @return <code>int</code>: The number of modes.
+     */
+    final int getNumModes() {
+
+        return steps.length;
+    }
+
+    /**
+     * Retrieves the change in degree along a mode.
+     *
+     * @param mode <code>int</code>: The mode to retrieve the change of.
+     * @return <code>int</code>: The number of integrals minus the number of
+     *         derivatives along the mode.
+     */
+    final int shift(int mode) {
+
+        int shift = 0;
+        if (mode < steps.length) {
+
+            for (int order : steps[mode]) {
+
+                shift += order;
+            }
+        }
+
+        return shift;
+    }
+
+    /**
+     * Calculates the combined weight given to each power along a mode. Each
+     * derivative of order <code>k</code> multiplies <code>x^e</code> by the
+     * falling factorial <code>e!/(e - k)!</code>, or zero if <code>e</code> is
+     * less than <code>k</code>, and each integral divides it by the rising
+     * factorial <code>(e + k)!/e!</code>.
+     *
+     * @param mode   <code>int</code>: The mode to calculate the weights of.
+     * @param length <code>int</code>: The number of powers along the mode.
+     * @return <code>double[]</code>: The weight of each power.
+     */
+    final double[] weights(int mode, int length) {
+
+        double[] weights = new double[length];
+        for (int i = 0; i < length; i++) {
+
+            int e = i;
+            double num = 1.0;
+            double den = 1.0;
+            for (int order : mode < steps.length ? steps[mode] : new int[0]) {
+
+                if (order < 0) {
+
+                    if (e < -order) {
+
+                        num = 0.0;
+                        break;
+                    }
+
+                    for (int j = 0; j < -order; j++) {
+
+                        num *= e - j;
+                    }
+                    e += order;
+                } else {
+
+                    for (int j = 0; j < order; j++) {
+
+                        den *= e + j + 1;
+                    }
+                    e += order;
+                }
+            }
+
+            weights[i] = num / den;
+        }
+
+        return weights;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+
+        return obj instanceof CalculusOperator op && Arrays.deepEquals(steps, op.steps);
+    }
+
+    @Override
+    public final int hashCode() {
+
+        return Arrays.deepHashCode(steps);
+    }
+
+    @Override
+    public final String toString() {
+
+        StringBuilder s = new StringBuilder("CalculusOperator[");
+        String separator = "";
+        for (int mode = 0; mode < steps.length; mode++) {
+
+            for (int order : steps[mode]) {
+
+                s.append(separator).append(order < 0 ? "differ(" : "integ(").append(mode).append(", ");
+                s.append(Math.abs(order)).append(')');
+                separator = ", ";
+            }
+        }
+
+        return s.append(']').toString();
+    }
+}
@@ -0,0 +1,212 @@
+package com.troxell.functions;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <code>FunctionCache</code>: A class representing a bounded, thread-safe cache
+ * of previously calculated values. Once the cache is full, the least recently
+ * used entry is evicted, and values are only held through soft references so
+ * that they may also be reclaimed under memory pressure.
+ */
+final class FunctionCache<K, V> {
+
+    /**
+     * <code>int</code>: The maximum number of entries in this
+     * <code>FunctionCache</code> instance.
+     */
+    private final int capacity;
+
+    /**
+     * <code>LinkedHashMap&lt;K, SoftReference&lt;V&gt;&gt;</code>: The entries of
+     * this <code>FunctionCache</code> instance, in order of least to most recent
+     * use.
+     */
+    private final LinkedHashMap<K, SoftReference<V>> entries;
+
+    /**
+     * <code>long</code>: The number of lookups in this <code>FunctionCache</code>
+     * instance which found a value.
+     */
+    private long hits;
+
+    /**
+     * <code>long</code>: The number of lookups in this <code>FunctionCache</code>
+     * instance which did not find a value.
+     */
+    private long misses;
+
+    /**
+     * Creates a new instance of the <code>FunctionCache</code> class.
+     *
+     * @param capacity <code>int</code>: The maximum number of entries in this
+     *                 <code>FunctionCache</code> instance.
+     */
+    FunctionCache(int capacity) {
+
+        this.capacity = capacity;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, SoftReference<V>> eldest) {
+
+                return size() > FunctionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Retrieves a value from this <code>FunctionCache</code> instance.
+     *
+     * @param key <code>K</code>: The key to retrieve using.
+     * @return <code>V</code>: The retrieved value, or <code>null</code> if it is
+     *         not present or has been reclaimed.
+     */
+    final synchronized V get(K key) {
+
+        V value = lookup(key);
+        if (value == null) {
+
+            misses++;
+        } else {
+
+            hits++;
+        }
+
+        return value;
+    }
+
+    /**
+     * Retrieves a value from this <code>FunctionCache</code> instance without
+     * counting the lookup.
+     * 
+     * @param key <code>K</code>: The key to retrieve using.
+     * @return <code>V</code>: The retrieved value, or <code>null</code> if it is
+     *         not present or has been reclaimed.
+     */
+    private V lookup(K key) {
+
+        SoftReference<V> ref = entries.get(key);
+        if (ref == null) {
+
+            return null;
+        }
+
+        V value = ref.get();
+        if (value == null) {
+
+            entries.remove(key);
+        }
+
+        return value;
+    }
+
+    /**
+     * Stores a value in this <code>FunctionCache</code> instance, evicting the
+     * least recently used entry if the cache is full.
+     *
+     * @param key   <code>K</code>: The key to store using.
+     * @param value <code>V</code>: The value to store.
+     */
+    final synchronized void put(K key, V value) {
+
+        // Drop any entries whose values have already been reclaimed.
+        Iterator<SoftReference<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+
+            if (it.next().get() == null) {
+
+                it.remove();
+            }
+        }
+
+        entries.put(key, new SoftReference<>(value));
+    }
+
+    /**
+     * Retrieves a value from this <code>FunctionCache</code> instance, calculating
+     * and storing it if it is not present. The value is calculated outside of the
+     * lock, so calculations may themselves use the cache; if two threads calculate
+     * the same value at once, the first to finish is kept.
+     *
+     * @param key      <code>K</code>: The key to retrieve using.
+     * @param function <code>Function&lt;K, V&gt;</code>: The function used to
+     *                 calculate a missing value.
+     * @return <code>V</code>: The retrieved or calculated value.
+     */
+    final V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+
+        V value = get(key);
+        if (value != null) {
+
+            return value;
+        }
+
+        value = function.apply(key);
+        if (value == null) {
+
+            return null;
+        }
+
+        synchronized (this) {
+
+            V existing = lookup(key);
+            if (existing != null) {
+
+                return existing;
+            }
+
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Retrieves the number of entries in this <code>FunctionCache</code>
+     * instance.
+     *
+     * @return <code>int</code>: The number of entries, including any whose values
+     *         have been reclaimed but not yet removed.
+     */
+    final synchronized int size() {
+
+        return entries.size();
+    }
+
+    /**
+     * Retrieves the number of lookups in this <code>FunctionCache</code> instance
+     * which found a value.
+     *
+     * @return <code>long</code>: The number of hits.
+     */
+    final synchronized long getHits() {
+
+        return hits;
+    }
+
+    /**
+     * Retrieves the number of lookups in this <code>FunctionCache</code> instance
+     * which did not find a value.
+     *
+     * @return <code>long</code>: The number of misses.
+     */
+    final synchronized long getMisses() {
+
+        return misses;
+    }
+
+    /**
+     * Removes every entry from this <code>FunctionCache</code> instance, and
+     * resets its hit and miss counts.
+     */
+    final synchronized void clear() {
+
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
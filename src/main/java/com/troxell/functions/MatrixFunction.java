@@ -0,0 +1,419 @@
+package com.troxell.functions;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.troxell.mat.Matrix;
+import com.troxell.mat.Vector;
+import com.troxell.numbers.MatNumber;
+
+/**
+ * <code>MatrixFunction</code>: A class representing a matrix-valued function,
+ * such as a Jacobian or Hessian. A symmetric <code>MatrixFunction</code>
+ * instance only stores the functions on and below its diagonal, packed row by
+ * row, so it keeps and evaluates roughly half as many functions as a full
+ * matrix of the same size.
+ */
+public final class MatrixFunction extends MatFunction<Matrix> {
+
+    /**
+     * <code>int</code>: The number of rows in this <code>MatrixFunction</code>
+     * instance.
+     */
+    private final int rows;
+
+    /**
+     * Retrieves the number of rows in this <code>MatrixFunction</code> instance.
+     *
+     * @return <code>int</code>: The <code>rows</code> field of this
+     *         <code>MatrixFunction</code> instance.
+     */
+    public final int getRows() {
+
+        return rows;
+    }
+
+    /**
+     * <code>int</code>: The number of columns in this <code>MatrixFunction</code>
+     * instance.
+     */
+    private final int cols;
+
+    /**
+     * Retrieves the number of columns in this <code>MatrixFunction</code>
+     * instance.
+     *
+     * @return <code>int</code>: The <code>cols</code> field of this
+     *         <code>MatrixFunction</code> instance.
+     */
+    public final int getCols() {
+
+        return cols;
+    }
+
+    /**
+     * <code>boolean</code>: Whether or not this <code>MatrixFunction</code>
+     * instance is stored in packed symmetric form.
+     */
+    private final boolean symmetric;
+
+    /**
+     * Determines whether or not this <code>MatrixFunction</code> instance is
+     * stored in packed symmetric form.
+     *
+     * @return <code>boolean</code>: The <code>symmetric</code> field of this
+     *         <code>MatrixFunction</code> instance.
+     */
+    public final boolean isSymmetric() {
+
+        return symmetric;
+    }
+
+    /**
+     * <code>TensorFunction[]</code>: The stored functions of this
+     * <code>MatrixFunction</code> instance, either every entry in row-major order
+     * or, if it is symmetric, the entries on and below the diagonal packed row by
+     * row.
+     */
+    private final TensorFunction[] functions;
+
+    /**
+     * Retrieves the number of functions stored by this
+     * <code>MatrixFunction</code> instance, which is the number of values written
+     * for each point by <code>applyAll</code>.
+     *
+     * @return <code>int</code>: The number of stored functions.
+     */
+    public final int getStoredSize() {
+
+        return functions.length;
+    }
+
+    private final int numArgs;
+
+    /**
+     * Retrieves the number of arguments in this <code>MatrixFunction</code>
+     * instance.
+     *
+     * @return <code>int</code>: The largest number of arguments of any of the
+     *         functions of this <code>MatrixFunction</code> instance.
+     */
+    @Override
+    public final int getNumArgs() {
+
+        return numArgs;
+    }
+
+    /**
+     * Creates a new instance of the <code>MatrixFunction</code> class.
+     *
+     * @param rows      <code>int</code>: The number of rows.
+     * @param cols      <code>int</code>: The number of columns.
+     * @param symmetric <code>boolean</code>: Whether or not the functions are
+     *                  stored in packed symmetric form.
+     * @param functions <code>TensorFunction[]</code>: The stored functions.
+     */
+    private MatrixFunction(int rows, int cols, boolean symmetric, TensorFunction[] functions) {
+
+        this.rows = rows;
+        this.cols = cols;
+        this.symmetric = symmetric;
+        this.functions = functions;
+
+        int length = 0;
+
+        for (TensorFunction f : functions) {
+
+            if (f.getNumArgs() > length) {
+
+                length = f.getNumArgs();
+            }
+        }
+
+        numArgs = length;
+    }
+
+    /**
+     * Creates a <code>MatrixFunction</code> instance from its entries.
+     *
+     * @param rows      <code>int</code>: The number of rows.
+     * @param cols      <code>int</code>: The number of columns.
+     * @param functions <code>TensorFunction...</code>: The entries of the matrix,
+     *                  in row-major order.
+     * @return <code>MatrixFunction</code>: The created function, or
+     *         <code>null</code> if a size is negative, too few entries are
+     *         provided or an entry is <code>null</code>.
+     */
+    public static final MatrixFunction of(int rows, int cols, TensorFunction... functions) {
+
+        if (rows < 0 || cols < 0) {
+
+            return null;
+        }
+
+        TensorFunction[] entries = entries(functions, rows * cols);
+        return entries == null ? null : new MatrixFunction(rows, cols, false, entries);
+    }
+
+    /**
+     * Creates a symmetric <code>MatrixFunction</code> instance from its entries
+     * on and below the diagonal.
+     *
+     * @param size   <code>int</code>: The number of rows and columns.
+     * @param packed <code>TensorFunction...</code>: The entries on and below the
+     *               diagonal, row by row, so that the entry at row
+     *               <code>i</code> and column <code>j &lt;= i</code> is at index
+     *               <code>i(i + 1)/2 + j</code>.
+     * @return <code>MatrixFunction</code>: The created function, or
+     *         <code>null</code> if the size is negative, too few entries are
+     *         provided or an entry is <code>null</code>.
+     */
+    public static final MatrixFunction symmetric(int size, TensorFunction... packed) {
+
+        if (size < 0) {
+
+            return null;
+        }
+
+        TensorFunction[] entries = entries(packed, size * (size + 1) / 2);
+        return entries == null ? null : new MatrixFunction(size, size, true, entries);
+    }
+
+    /**
+     * Copies the entries to be stored by a <code>MatrixFunction</code> instance.
+     *
+     * @param functions <code>TensorFunction[]</code>: The provided entries.
+     * @param length    <code>int</code>: The number of entries to store.
+     * @return <code>TensorFunction[]</code>: The first <code>length</code>
+     *         entries, or <code>null</code> if fewer are provided or any of them
+     *         is <code>null</code>.
+     */
+    private static TensorFunction[] entries(TensorFunction[] functions, int length) {
+
+        if (functions.length < length) {
+
+            return null;
+        }
+
+        TensorFunction[] entries = Arrays.copyOf(functions, length);
+        for (TensorFunction f : entries) {
+
+            if (f == null) {
+
+                return null;
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Calculates the index of an entry among the stored functions.
+     *
+     * @param row <code>int</code>: The row of the entry.
+     * @param col <code>int</code>: The column of the entry.
+     * @return <code>int</code>: The index of the stored function.
+     */
+    private int index(int row, int col) {
+
+        if (!symmetric) {
+
+            return row * cols + col;
+        }
+
+        return row >= col ? row * (row + 1) / 2 + col : col * (col + 1) / 2 + row;
+    }
+
+    /**
+     * Retrieves an entry of this <code>MatrixFunction</code> instance.
+     *
+     * @param row <code>int</code>: The row to retrieve from.
+     * @param col <code>int</code>: The column to retrieve from.
+     * @return <code>TensorFunction</code>: The retrieved function.
+     */
+    public final TensorFunction get(int row, int col) {
+
+        return functions[index(row, col)];
+    }
+
+    @Override
+    public final Matrix apply(double... args) {
+
+        return evaluate(f -> f.apply(args));
+    }
+
+    @Override
+    public final Matrix apply(MatNumber... args) {
+
+        return evaluate(f -> f.apply(args));
+    }
+
+    @Override
+    public final Matrix apply(Vector args) {
+
+        return evaluate(f -> f.apply(args));
+    }
+
+    /**
+     * Evaluates each stored function once and arranges the values into a
+     * matrix.
+     *
+     * @param evaluator <code>Function&lt;TensorFunction, MatNumber&gt;</code>:
+     *                  The evaluation of a single function.
+     * @return <code>Matrix</code>: The resulting matrix, or <code>null</code> if
+     *         a function could not be evaluated.
+     */
+    private Matrix evaluate(Function<TensorFunction, MatNumber> evaluator) {
+
+        MatNumber[] values = new MatNumber[functions.length];
+        for (int k = 0; k < values.length; k++) {
+
+            values[k] = evaluator.apply(functions[k]);
+            if (values[k] == null) {
+
+                return null;
+            }
+        }
+
+        if (!symmetric) {
+
+            return new Matrix(rows, cols, values);
+        }
+
+        MatNumber[] data = new MatNumber[rows * cols];
+        for (int r = 0; r < rows; r++) {
+
+            for (int c = 0; c < cols; c++) {
+
+                data[r * cols + c] = values[index(r, c)];
+            }
+        }
+
+        return new Matrix(rows, cols, data);
+    }
+
+    /**
+     * Evaluates this <code>MatrixFunction</code> instance at many real points
+     * into a primitive buffer. The stored functions are written for each point in
+     * turn, in the order returned by <code>get</code> for a full matrix and in
+     * packed order for a symmetric one, so a symmetric matrix only evaluates the
+     * entries on and below its diagonal.
+     *
+     * @param points <code>double[][]</code>: The points to evaluate at.
+     * @param out    <code>double[]</code>: The buffer to fill, or
+     *               <code>null</code> to allocate one. A buffer with fewer than
+     *               <code>getStoredSize()</code> values per point is replaced by
+     *               a new one.
+     * @return <code>double[]</code>: The filled buffer, where values which could
+     *         not be evaluated, because there are not enough provided arguments
+     *         or the coefficients are not real, are <code>NaN</code>.
+     */
+    public final double[] applyAll(double[][] points, double[] out) {
+
+        int stride = functions.length;
+        if (out == null || out.length < points.length * stride) {
+
+            out = new double[points.length * stride];
+        }
+
+        for (int p = 0; p < points.length; p++) {
+
+            for (int k = 0; k < stride; k++) {
+
+                out[p * stride + k] = functions[k].applyReal(points[p]);
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Applies an operation to every stored function, keeping the storage form of
+     * this <code>MatrixFunction</code> instance.
+     *
+     * @param operation <code>UnaryOperator&lt;TensorFunction&gt;</code>: The
+     *                  operation to apply.
+     * @return <code>MatrixFunction</code>: The calculated function, or
+     *         <code>null</code> if the operation failed for any function.
+     */
+    private MatrixFunction map(UnaryOperator<TensorFunction> operation) {
+
+        TensorFunction[] mapped = new TensorFunction[functions.length];
+        for (int k = 0; k < mapped.length; k++) {
+
+            mapped[k] = operation.apply(functions[k]);
+            if (mapped[k] == null) {
+
+                return null;
+            }
+        }
+
+        return new MatrixFunction(rows, cols, symmetric, mapped);
+    }
+
+    @Override
+    public final MatrixFunction differ(int mode, int n) {
+
+        return map(f -> f.differ(mode, n));
+    }
+
+    @Override
+    public final MatrixFunction integ(int mode, int n) {
+
+        return map(f -> f.integ(mode, n));
+    }
+
+    @Override
+    public final MatrixFunction multiply(TensorFunction function) {
+
+        return map(f -> f.multiply(function));
+    }
+
+    @Override
+    public final MatrixFunction multiply(double scalar) {
+
+        return map(f -> f.multiply(scalar));
+    }
+
+    @Override
+    public final MatrixFunction multiply(MatNumber scalar) {
+
+        return map(f -> f.multiply(scalar));
+    }
+
+    @Override
+    public final MatrixFunction divide(TensorFunction function) {
+
+        return map(f -> f.divide(function));
+    }
+
+    @Override
+    public final MatrixFunction divide(double scalar) {
+
+        return map(f -> f.divide(scalar));
+    }
+
+    @Override
+    public final MatrixFunction divide(MatNumber scalar) {
+
+        return map(f -> f.divide(scalar));
+    }
+
+    @Override
+    public final String toString() {
+
+        StringBuilder s = new StringBuilder("[");
+        for (int r = 0; r < rows; r++) {
+
+            s.append(r > 0 ? ", [" : "[");
+            for (int c = 0; c < cols; c++) {
+
+                s.append(c > 0 ? ", " : "").append(get(r, c));
+            }
+            s.append(']');
+        }
+
+        return s.append(']').toString();
+    }
+}
@@ -0,0 +1,574 @@
+package com.troxell.functions;
+
+import com.troxell.mat.Tensor;
+import com.troxell.numbers.Complex;
+import com.troxell.numbers.MatNumber;
+import com.troxell.numbers.Real;
+
+/**
+ * <code>Series</code>: A class containing power series recurrences for the
+ * elementary functions of a <code>TensorFunction</code> instance. A function
+ * is split into its homogeneous components <code>f0, f1, ..., fN</code>, where
+ * <code>fk</code> holds the terms of total degree <code>k</code>. The Euler
+ * operator <code>E</code>, which multiplies <code>fk</code> by <code>k</code>,
+ * obeys the chain rule <code>E(F(f)) = F'(f) E(f)</code>, so each component of
+ * <code>F(f)</code> is a sum of products of lower components and a series
+ * through degree <code>N</code> costs <code>O(N^2)</code> products of
+ * components. Only the constant component is evaluated through
+ * <code>F</code> itself. Components which are entirely zero are represented by
+ * <code>null</code>.
+ */
+final class Series {
+
+    private Series() {
+    }
+
+    /**
+     * Calculates the components of <code>e^f</code>, using
+     * <code>E(g) = E(f) g</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components.
+     */
+    static TensorFunction[] exp(TensorFunction[] f, Truncation truncation) {
+
+        TensorFunction[] ef = euler(f);
+
+        TensorFunction[] g = new TensorFunction[f.length];
+        g[0] = constant(exp(constantOf(f)));
+        for (int k = 1; k < f.length; k++) {
+
+            g[k] = divide(convolve(ef, g, k, 1, k, truncation), k);
+        }
+
+        return g;
+    }
+
+    /**
+     * Calculates the components of <code>sin(f)</code> and <code>cos(f)</code>
+     * together, using <code>E(s) = E(f) c</code> and <code>E(c) = -E(f) s</code>,
+     * or of <code>sinh(f)</code> and <code>cosh(f)</code>, using
+     * <code>E(s) = E(f) c</code> and <code>E(c) = E(f) s</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param hyperbolic <code>boolean</code>: Whether or not to calculate the
+     *                   hyperbolic functions.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[][]</code>: The calculated components of the
+     *         sine and of the cosine.
+     */
+    static TensorFunction[][] sinCos(TensorFunction[] f, boolean hyperbolic, Truncation truncation) {
+
+        TensorFunction[] ef = euler(f);
+        MatNumber a = constantOf(f);
+
+        TensorFunction[] s = new TensorFunction[f.length];
+        TensorFunction[] c = new TensorFunction[f.length];
+        s[0] = constant(hyperbolic ? sinh(a) : sin(a));
+        c[0] = constant(hyperbolic ? cosh(a) : cos(a));
+
+        double sign = hyperbolic ? 1.0 : -1.0;
+        for (int k = 1; k < f.length; k++) {
+
+            s[k] = divide(convolve(ef, c, k, 1, k, truncation), k);
+            c[k] = divide(convolve(ef, s, k, 1, k, truncation), sign * k);
+        }
+
+        return new TensorFunction[][] { s, c };
+    }
+
+    /**
+     * Calculates the components of <code>tan(f)</code>, using
+     * <code>E(t) = E(f) (1 + t^2)</code>, or of <code>tanh(f)</code>, using
+     * <code>E(t) = E(f) (1 - t^2)</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param hyperbolic <code>boolean</code>: Whether or not to calculate the
+     *                   hyperbolic function.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components.
+     */
+    static TensorFunction[] tan(TensorFunction[] f, boolean hyperbolic, Truncation truncation) {
+
+        TensorFunction[] ef = euler(f);
+        MatNumber a = constantOf(f);
+        double sign = hyperbolic ? -1.0 : 1.0;
+
+        MatNumber t0 = hyperbolic ? sinh(a).divide(cosh(a)) : sin(a).divide(cos(a));
+        if (t0 == null) {
+
+            return null;
+        }
+
+        TensorFunction[] t = new TensorFunction[f.length];
+        TensorFunction[] u = new TensorFunction[f.length];
+        t[0] = constant(t0);
+        u[0] = constant(MatNumber.ONE.add(t0.multiply(t0).multiply(sign)));
+        for (int k = 1; k < f.length; k++) {
+
+            t[k] = divide(convolve(ef, u, k, 1, k, truncation), k);
+            u[k] = multiply(convolve(t, t, k, 0, k, truncation), sign);
+        }
+
+        return t;
+    }
+
+    /**
+     * Calculates the components of <code>log(f)</code>, using
+     * <code>f E(g) = E(f)</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components, or
+     *         <code>null</code> if the constant term of the argument is zero.
+     */
+    static TensorFunction[] log(TensorFunction[] f, Truncation truncation) {
+
+        MatNumber g0 = log(constantOf(f));
+        if (g0 == null) {
+
+            return null;
+        }
+
+        return integrate(f, f, g0, truncation);
+    }
+
+    /**
+     * Calculates the components of <code>atan(f)</code>, using
+     * <code>(1 + f^2) E(g) = E(f)</code>, or of <code>atanh(f)</code>, using
+     * <code>(1 - f^2) E(g) = E(f)</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param hyperbolic <code>boolean</code>: Whether or not to calculate the
+     *                   hyperbolic function.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components, or
+     *         <code>null</code> if the series is singular at the constant term of
+     *         the argument.
+     */
+    static TensorFunction[] atan(TensorFunction[] f, boolean hyperbolic, Truncation truncation) {
+
+        MatNumber g0 = hyperbolic ? atanh(constantOf(f)) : atan(constantOf(f));
+        if (g0 == null) {
+
+            return null;
+        }
+
+        return integrate(f, onePlusSquare(f, hyperbolic ? -1.0 : 1.0, truncation), g0, truncation);
+    }
+
+    /**
+     * Calculates the components of <code>asin(f)</code>, using
+     * <code>sqrt(1 - f^2) E(g) = E(f)</code>, or of <code>asinh(f)</code>, using
+     * <code>sqrt(1 + f^2) E(g) = E(f)</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param hyperbolic <code>boolean</code>: Whether or not to calculate the
+     *                   hyperbolic function.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components, or
+     *         <code>null</code> if the series is singular at the constant term of
+     *         the argument.
+     */
+    static TensorFunction[] asin(TensorFunction[] f, boolean hyperbolic, Truncation truncation) {
+
+        MatNumber g0 = hyperbolic ? asinh(constantOf(f)) : asin(constantOf(f));
+        TensorFunction[] h = pow(onePlusSquare(f, hyperbolic ? 1.0 : -1.0, truncation), 0.5, truncation);
+        if (g0 == null || h == null) {
+
+            return null;
+        }
+
+        return integrate(f, h, g0, truncation);
+    }
+
+    /**
+     * Calculates the components of <code>f^p</code>, using
+     * <code>f E(g) = p E(f) g</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param p          <code>double</code>: The exponent to apply.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components, or
+     *         <code>null</code> if the constant term of the argument is zero.
+     */
+    static TensorFunction[] pow(TensorFunction[] f, double p, Truncation truncation) {
+
+        MatNumber a = constantOf(f);
+        if (a.abs() == 0.0) {
+
+            return null;
+        }
+
+        TensorFunction[] ef = euler(f);
+
+        // k a g_k = sum over j of ((p + 1) j - k) f_j g_(k-j)
+        TensorFunction[] g = new TensorFunction[f.length];
+        g[0] = constant(pow(a, p));
+        for (int k = 1; k < f.length; k++) {
+
+            TensorFunction sum = add(multiply(convolve(ef, g, k, 1, k, truncation), p + 1.0),
+                    multiply(convolve(f, g, k, 1, k, truncation), -k));
+            g[k] = divide(sum, a.multiply(k));
+        }
+
+        return g;
+    }
+
+    /**
+     * Solves <code>h E(g) = E(p)</code> for the components of <code>g</code>,
+     * which integrates <code>p'/h</code>.
+     *
+     * @param p          <code>TensorFunction[]</code>: The components of the
+     *                   numerator.
+     * @param h          <code>TensorFunction[]</code>: The components of the
+     *                   denominator.
+     * @param g0         <code>MatNumber</code>: The constant term of the result.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components, or
+     *         <code>null</code> if the constant term of the denominator is zero.
+     */
+    private static TensorFunction[] integrate(TensorFunction[] p, TensorFunction[] h, MatNumber g0,
+            Truncation truncation) {
+
+        MatNumber h0 = constantOf(h);
+        if (h0.abs() == 0.0) {
+
+            return null;
+        }
+
+        TensorFunction[] ep = euler(p);
+
+        TensorFunction[] eg = new TensorFunction[p.length];
+        TensorFunction[] g = new TensorFunction[p.length];
+        g[0] = constant(g0);
+        for (int k = 1; k < p.length; k++) {
+
+            TensorFunction rest = convolve(h, eg, k, 1, k - 1, truncation);
+            eg[k] = divide(add(ep[k], multiply(rest, -1.0)), h0);
+            g[k] = divide(eg[k], k);
+        }
+
+        return g;
+    }
+
+    /**
+     * Calculates the components of <code>1 + sign * f^2</code>.
+     *
+     * @param f          <code>TensorFunction[]</code>: The components of the
+     *                   argument.
+     * @param sign       <code>double</code>: The sign of the square.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction[]</code>: The calculated components.
+     */
+    private static TensorFunction[] onePlusSquare(TensorFunction[] f, double sign, Truncation truncation) {
+
+        TensorFunction[] h = new TensorFunction[f.length];
+        for (int k = 0; k < f.length; k++) {
+
+            h[k] = multiply(convolve(f, f, k, 0, k, truncation), sign);
+        }
+
+        h[0] = add(h[0], constant(MatNumber.ONE));
+        return h;
+    }
+
+    /**
+     * Applies the Euler operator to a set of components, multiplying the component
+     * of degree <code>k</code> by <code>k</code>.
+     *
+     * @param f <code>TensorFunction[]</code>: The components to apply to.
+     * @return <code>TensorFunction[]</code>: The weighted components.
+     */
+    private static TensorFunction[] euler(TensorFunction[] f) {
+
+        TensorFunction[] ef = new TensorFunction[f.length];
+        for (int k = 1; k < f.length; k++) {
+
+            ef[k] = multiply(f[k], k);
+        }
+
+        return ef;
+    }
+
+    /**
+     * Calculates the sum of the products <code>a[j] b[k - j]</code> for
+     * <code>j</code> from <code>from</code> to <code>to</code>, skipping zero
+     * components.
+     *
+     * @param a          <code>TensorFunction[]</code>: The first components.
+     * @param b          <code>TensorFunction[]</code>: The second components.
+     * @param k          <code>int</code>: The degree of the sum.
+     * @param from       <code>int</code>: The first index into <code>a</code>.
+     * @param to         <code>int</code>: The last index into <code>a</code>.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated sum, or
+     *         <code>null</code> if every product is zero.
+     */
+    private static TensorFunction convolve(TensorFunction[] a, TensorFunction[] b, int k, int from, int to,
+            Truncation truncation) {
+
+        TensorFunction sum = null;
+        for (int j = from; j <= to; j++) {
+
+            if (a[j] != null && b[k - j] != null) {
+
+                sum = add(sum, a[j].multiply(b[k - j], truncation));
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Adds two components, either of which may be zero.
+     *
+     * @param a <code>TensorFunction</code>: The first component.
+     * @param b <code>TensorFunction</code>: The second component.
+     * @return <code>TensorFunction</code>: The sum.
+     */
+    private static TensorFunction add(TensorFunction a, TensorFunction b) {
+
+        if (a == null) {
+
+            return b;
+        }
+
+        return b == null ? a : a.add(b);
+    }
+
+    /**
+     * Multiplies a component, which may be zero, by a scalar.
+     *
+     * @param a      <code>TensorFunction</code>: The component.
+     * @param scalar <code>double</code>: The scalar to multiply by.
+     * @return <code>TensorFunction</code>: The product.
+     */
+    private static TensorFunction multiply(TensorFunction a, double scalar) {
+
+        return a == null ? null : a.multiply(scalar);
+    }
+
+    /**
+     * Divides a component, which may be zero, by a scalar.
+     *
+     * @param a      <code>TensorFunction</code>: The component.
+     * @param scalar <code>double</code>: The scalar to divide by.
+     * @return <code>TensorFunction</code>: The quotient.
+     */
+    private static TensorFunction divide(TensorFunction a, double scalar) {
+
+        return a == null ? null : a.divide(scalar);
+    }
+
+    /**
+     * Divides a component, which may be zero, by a scalar.
+     *
+     * @param a      <code>TensorFunction</code>: The component.
+     * @param scalar <code>MatNumber</code>: The scalar to divide by.
+     * @return <code>TensorFunction</code>: The quotient.
+     */
+    private static TensorFunction divide(TensorFunction a, MatNumber scalar) {
+
+        return a == null ? null : a.divide(scalar);
+    }
+
+    /**
+     * Retrieves the constant term from a set of components.
+     *
+     * @param f <code>TensorFunction[]</code>: The components.
+     * @return <code>MatNumber</code>: The constant term.
+     */
+    private static MatNumber constantOf(TensorFunction[] f) {
+
+        return f[0] == null ? MatNumber.ZERO : f[0].constant();
+    }
+
+    /**
+     * Creates a constant component.
+     *
+     * @param value <code>MatNumber</code>: The value of the constant.
+     * @return <code>TensorFunction</code>: The created component, or
+     *         <code>null</code> if the value is zero.
+     */
+    private static TensorFunction constant(MatNumber value) {
+
+        return value.equals(MatNumber.ZERO) ? null : new TensorFunction(new Tensor(new int[] {}, value));
+    }
+
+    /**
+     * Creates a number from its components, which is real if possible.
+     *
+     * @param re <code>double</code>: The real component.
+     * @param im <code>double</code>: The imaginary component.
+     * @return <code>MatNumber</code>: The created number.
+     */
+    private static MatNumber number(double re, double im) {
+
+        return im == 0.0 ? new Real(re) : new Complex(re, im);
+    }
+
+    /**
+     * Calculates <code>e^z</code>.
+     *
+     * @param z <code>MatNumber</code>: The exponent.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber exp(MatNumber z) {
+
+        double r = Math.exp(z.real());
+        return number(r * Math.cos(z.imag()), r * Math.sin(z.imag()));
+    }
+
+    /**
+     * Calculates the principal value of <code>log(z)</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value, or <code>null</code>
+     *         if the argument is zero.
+     */
+    private static MatNumber log(MatNumber z) {
+
+        if (z.abs() == 0.0) {
+
+            return null;
+        }
+
+        return number(Math.log(z.abs()), Math.atan2(z.imag(), z.real()));
+    }
+
+    /**
+     * Calculates the principal value of <code>z^p</code>.
+     *
+     * @param z <code>MatNumber</code>: The base.
+     * @param p <code>double</code>: The exponent.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber pow(MatNumber z, double p) {
+
+        if (z.imag() == 0.0 && z.real() > 0.0) {
+
+            return new Real(Math.pow(z.real(), p));
+        }
+
+        return z.abs() == 0.0 ? MatNumber.ZERO : exp(log(z).multiply(p));
+    }
+
+    /**
+     * Calculates <code>sin(z)</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber sin(MatNumber z) {
+
+        return number(Math.sin(z.real()) * Math.cosh(z.imag()), Math.cos(z.real()) * Math.sinh(z.imag()));
+    }
+
+    /**
+     * Calculates <code>cos(z)</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber cos(MatNumber z) {
+
+        return number(Math.cos(z.real()) * Math.cosh(z.imag()), -Math.sin(z.real()) * Math.sinh(z.imag()));
+    }
+
+    /**
+     * Calculates <code>sinh(z)</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber sinh(MatNumber z) {
+
+        return number(Math.sinh(z.real()) * Math.cos(z.imag()), Math.cosh(z.real()) * Math.sin(z.imag()));
+    }
+
+    /**
+     * Calculates <code>cosh(z)</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber cosh(MatNumber z) {
+
+        return number(Math.cosh(z.real()) * Math.cos(z.imag()), Math.sinh(z.real()) * Math.sin(z.imag()));
+    }
+
+    /**
+     * Calculates the principal value of <code>atan(z)</code>, which is
+     * <code>(i/2) log((i + z)/(i - z))</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value, or <code>null</code>
+     *         if the argument is <code>i</code> or <code>-i</code>.
+     */
+    private static MatNumber atan(MatNumber z) {
+
+        if (z.imag() == 0.0) {
+
+            return new Real(Math.atan(z.real()));
+        }
+
+        MatNumber quotient = MatNumber.IMAG.add(z).divide(MatNumber.IMAG.subtract(z));
+        MatNumber log = quotient == null ? null : log(quotient);
+        return log == null ? null : log.multiply(MatNumber.IMAG).divide(2.0);
+    }
+
+    /**
+     * Calculates the principal value of <code>atanh(z)</code>, which is
+     * <code>(1/2) log((1 + z)/(1 - z))</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value, or <code>null</code>
+     *         if the argument is <code>1</code> or <code>-1</code>.
+     */
+    private static MatNumber atanh(MatNumber z) {
+
+        MatNumber quotient = MatNumber.ONE.add(z).divide(MatNumber.ONE.subtract(z));
+        MatNumber log = quotient == null ? null : log(quotient);
+        return log == null ? null : log.divide(2.0);
+    }
+
+    /**
+     * Calculates the principal value of <code>asin(z)</code>, which is
+     * <code>-i log(iz + sqrt(1 - z^2))</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber asin(MatNumber z) {
+
+        if (z.imag() == 0.0 && Math.abs(z.real()) <= 1.0) {
+
+            return new Real(Math.asin(z.real()));
+        }
+
+        MatNumber root = pow(MatNumber.ONE.subtract(z.multiply(z)), 0.5);
+        return log(MatNumber.IMAG.multiply(z).add(root)).multiply(MatNumber.NEGATIVE_IMAG);
+    }
+
+    /**
+     * Calculates the principal value of <code>asinh(z)</code>, which is
+     * <code>log(z + sqrt(z^2 + 1))</code>.
+     *
+     * @param z <code>MatNumber</code>: The argument.
+     * @return <code>MatNumber</code>: The calculated value.
+     */
+    private static MatNumber asinh(MatNumber z) {
+
+        MatNumber root = pow(z.multiply(z).add(MatNumber.ONE), 0.5);
+        return log(z.add(root));
+    }
+}
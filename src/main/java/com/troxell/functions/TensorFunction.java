@@ -3,15 +3,17 @@ package com.troxell.functions;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 import com.troxell.MatContext;
+import com.troxell.mat.Convolution;
 import com.troxell.mat.Matrix;
 import com.troxell.mat.Tensor;
 import com.troxell.mat.Vector;
+import com.troxell.numbers.Complex;
 import com.troxell.numbers.MatNumber;
 import com.troxell.numbers.Real;
 
@@ -43,6 +45,304 @@ public final class TensorFunction extends MatFunction<MatNumber> {
      */
     private final Tensor coeffs;
 
+    /**
+     * <code>double[][]</code>: The real and imaginary components of the
+     * <code>coeffs</code> field of this <code>TensorFunction</code> instance,
+     * unpacked the first time they are needed. The imaginary components are
+     * <code>null</code> if every coefficient is real.
+     */
+    private volatile double[][] parts;
+
+    /**
+     * Retrieves the real and imaginary components of the coefficients of this
+     * <code>TensorFunction</code> instance.
+     *
+     * @return <code>double[][]</code>: The real components, followed by the
+     *         imaginary components or <code>null</code> if every coefficient is
+     *         real.
+     */
+    private double[][] parts() {
+
+        double[][] p = parts;
+        if (p == null) {
+
+            p = new double[][] { coeffs.getReal(), coeffs.isReal() ? null : coeffs.getImag() };
+            parts = p;
+        }
+
+        return p;
+    }
+
+    /**
+     * <code>int</code>: The maximum number of derived functions remembered by
+     * each <code>TensorFunction</code> instance.
+     */
+    private static final int DERIVED_CAPACITY = 32;
+
+    /**
+     * <code>int</code>: A constant representing a derived function formed through
+     * differentiation.
+     */
+    private static final int DIFFER = 0;
+
+    /**
+     * <code>int</code>: A constant representing a derived function formed through
+     * integration.
+     */
+    private static final int INTEG = 1;
+
+    /**
+     * <code>int</code>: A constant representing a derived function formed as a
+     * gradient.
+     */
+    private static final int GRADIENT = 2;
+
+    /**
+     * <code>int</code>: A constant representing a derived function formed as an
+     * integer power.
+     */
+    private static final int POW = 3;
+
+    /**
+     * <code>int</code>: A constant representing the homogeneous components of a
+     * <code>TensorFunction</code> instance.
+     */
+    private static final int COMPONENTS = 4;
+
+    /**
+     * <code>int</code>: The first constant representing a derived function formed
+     * as an elementary function series. The series kinds follow in the order
+     * exp, log, sin, cos, tan, sinh, cosh, tanh, atan, atanh, asin, asinh and
+     * recip.
+     */
+    private static final int EXP = 5, LOG = 6, SIN = 7, COS = 8, TAN = 9, SINH = 10, COSH = 11, TANH = 12,
+            ATAN = 13, ATANH = 14, ASIN = 15, ASINH = 16, RECIP = 17;
+
+    /**
+     * <code>int</code>: A constant representing a derived function formed as a
+     * Hessian.
+     */
+    private static final int HESSIAN = 18;
+
+    /**
+     * <code>int</code>: A constant representing a derived function formed as a
+     * Laplacian.
+     */
+    private static final int LAPLACIAN = 19;
+
+    /**
+     * <code>Derivation</code>: A record describing how a derived function was
+     * formed from a <code>TensorFunction</code> instance.
+     *
+     * @param kind       <code>int</code>: The kind of derived function.
+     * @param mode       <code>int</code>: The mode the function was derived along.
+     * @param n          <code>int</code>: The order of the derivation.
+     * @param truncation <code>Truncation</code>: The truncation the function was
+     *                   formed under.
+     */
+    private record Derivation(int kind, int mode, int n, Truncation truncation) {
+
+        /**
+         * Creates a new instance of the <code>Derivation</code> record for a
+         * function formed without truncation.
+         *
+         * @param kind <code>int</code>: The kind of derived function.
+         * @param mode <code>int</code>: The mode the function was derived along.
+         * @param n    <code>int</code>: The order of the derivation.
+         */
+        private Derivation(int kind, int mode, int n) {
+
+            this(kind, mode, n, Truncation.NONE);
+        }
+    }
+
+    /**
+     * <code>FunctionCache&lt;Derivation, Object&gt;</code>: The functions and
+     * tables previously derived from this <code>TensorFunction</code> instance.
+     * Since a <code>TensorFunction</code> instance is immutable, its derivatives,
+     * integrals and gradient never change, and repeated calculus costs a lookup
+     * instead of a rebuild.
+     */
+    private volatile FunctionCache<Derivation, Object> derived;
+
+    /**
+     * Retrieves the cache of functions previously derived from this
+     * <code>TensorFunction</code> instance, creating it on first use.
+     *
+     * @return <code>FunctionCache&lt;Derivation, Object&gt;</code>: The cache of
+     *         derived functions.
+     */
+    private FunctionCache<Derivation, Object> derived() {
+
+        FunctionCache<Derivation, Object> cache = derived;
+        if (cache == null) {
+
+            synchronized (this) {
+
+                cache = derived;
+                if (cache == null) {
+
+                    cache = new FunctionCache<>(DERIVED_CAPACITY);
+                    derived = cache;
+                }
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * <code>int</code>: The maximum number of power ladders shared between every
+     * <code>TensorFunction</code> instance.
+     */
+    private static final int LADDER_CAPACITY = 64;
+
+    /**
+     * <code>FunctionCache&lt;LadderKey, Ladder&gt;</code>: The powers previously
+     * calculated of each inner function, shared between every
+     * <code>TensorFunction</code> instance. Repeated compositions and series with
+     * the same inner function, even through distinct but equal instances, reuse its
+     * powers instead of recalculating them.
+     */
+    private static final FunctionCache<LadderKey, Ladder> LADDERS = new FunctionCache<>(LADDER_CAPACITY);
+
+    /**
+     * <code>LadderKey</code>: A record identifying a power ladder by the
+     * coefficients of its function and its truncation.
+     *
+     * @param dims       <code>int[]</code>: The dimensions of the coefficients.
+     * @param re         <code>double[]</code>: The real components of the
+     *                   coefficients.
+     * @param im         <code>double[]</code>: The imaginary components of the
+     *                   coefficients, or <code>null</code> if every coefficient is
+     *                   real.
+     * @param truncation <code>Truncation</code>: The truncation of the powers.
+     */
+    private record LadderKey(int[] dims, double[] re, double[] im, Truncation truncation) {
+
+        @Override
+        public boolean equals(Object obj) {
+
+            return obj instanceof LadderKey key && Arrays.equals(dims, key.dims) && Arrays.equals(re, key.re)
+                    && Arrays.equals(im, key.im) && truncation.equals(key.truncation);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return 31 * (31 * (31 * Arrays.hashCode(dims) + Arrays.hashCode(re)) + Arrays.hashCode(im))
+                    + truncation.hashCode();
+        }
+    }
+
+    /**
+     * <code>Ladder</code>: A class representing the powers of a function, which
+     * are calculated on demand and kept.
+     */
+    private static final class Ladder {
+
+        /**
+         * <code>Part</code>: The function being raised.
+         */
+        private final Part base;
+
+        /**
+         * <code>Truncation</code>: The truncation of the powers.
+         */
+        private final Truncation truncation;
+
+        /**
+         * <code>List&lt;Part&gt;</code>: The powers calculated so far, in order of
+         * exponent.
+         */
+        private final List<Part> powers = new ArrayList<>();
+
+        /**
+         * Creates a new instance of the <code>Ladder</code> class.
+         *
+         * @param base       <code>Part</code>: The function being raised.
+         * @param truncation <code>Truncation</code>: The truncation of the powers.
+         */
+        private Ladder(Part base, Truncation truncation) {
+
+            this.base = base;
+            this.truncation = truncation;
+            powers.add(new Part(new int[] { 1 }, new int[0], new double[] { 1.0 }, null));
+        }
+
+        /**
+         * Retrieves a power of the function, climbing the ladder to it if it has
+         * not been calculated.
+         *
+         * @param n <code>int</code>: The exponent to retrieve.
+         * @return <code>Part</code>: The power, which must not be modified.
+         */
+        private synchronized Part get(int n) {
+
+            while (powers.size() <= n) {
+
+                powers.add(multiply(powers.getLast(), base, truncation));
+            }
+
+            return powers.get(n);
+        }
+    }
+
+    /**
+     * Retrieves the shared power ladder of this <code>TensorFunction</code>
+     * instance.
+     *
+     * @param truncation <code>Truncation</code>: The truncation of the powers.
+     * @return <code>Ladder</code>: The power ladder.
+     */
+    private Ladder ladder(Truncation truncation) {
+
+        double[][] p = parts();
+        return LADDERS.computeIfAbsent(new LadderKey(coeffs.getDimensions(), p[0], p[1], truncation),
+                key -> new Ladder(new Part(key.dims(), new int[0], key.re(), key.im()), key.truncation()));
+    }
+
+    /**
+     * Retrieves the number of lookups in the shared power ladder cache which found
+     * the powers of an inner function already calculated.
+     *
+     * @return <code>long</code>: The number of hits.
+     */
+    public static final long getPowerCacheHits() {
+
+        return LADDERS.getHits();
+    }
+
+    /**
+     * Retrieves the number of lookups in the shared power ladder cache which had
+     * to start a new power ladder.
+     *
+     * @return <code>long</code>: The number of misses.
+     */
+    public static final long getPowerCacheMisses() {
+
+        return LADDERS.getMisses();
+    }
+
+    /**
+     * Retrieves the number of power ladders in the shared power ladder cache.
+     *
+     * @return <code>int</code>: The number of power ladders.
+     */
+    public static final int getPowerCacheSize() {
+
+        return LADDERS.size();
+    }
+
+    /**
+     * Removes every power ladder from the shared power ladder cache, and resets
+     * its hit and miss counts.
+     */
+    public static final void clearPowerCache() {
+
+        LADDERS.clear();
+    }
+
     /**
      * Retrieves the number of arguments in this <code>TensorFunction</code>
      * instance.
@@ -515,983 +815,5099 @@ public final class TensorFunction extends MatFunction<MatNumber> {
         coeffs = tensor;
     }
 
+    /**
+     * Calculates the first <code>n</code> terms of the exponential series of a
+     * function, <code>1 + f + f^2/2! + ... + f^(n-1)/(n-1)!</code>. Unlike
+     * <code>expSeries</code>, every term is the full power of the function, so
+     * the result is not the Taylor series through any one total degree unless
+     * the function has no constant term and is linear.
+     * 
+     * @param function <code>TensorFunction</code>: The function to exponentiate.
+     * @param n        <code>int</code>: The number of series terms.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
     public static final TensorFunction exp(TensorFunction function, int n) {
 
-        TensorFunction f = ZERO;
-
-        TensorFunction pow = ONE;
-
-        for (int i = 0; i < n; i++) {
-
-            f = f.add(pow);
-
-            // Add additional factors x/1, x/2, ... , x/n
-            pow = pow.multiply(function.divide(new Real(i + 1)));
-        }
-
-        return f;
+        return exp(function, n, MatContext.getTruncation());
     }
 
-    public static final TensorFunction pow(TensorFunction function, double p, int h, double center) {
+    /**
+     * Calculates the first <code>n</code> terms of the exponential series of a
+     * function, keeping only the terms within a truncation. The powers of the
+     * function are taken from the shared power ladder cache and accumulated into
+     * a single result.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to exponentiate.
+     * @param n          <code>int</code>: The number of series terms.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public static final TensorFunction exp(TensorFunction function, int n, Truncation truncation) {
 
-        if (p == 0.0) {
+        if (n <= 0) {
 
-            return ONE;
+            return ZERO;
         }
 
-        if (p < 0) {
-
-            return null;// recip(pow(function, -p, h, center));
-        }
+        Ladder ladder = function.ladder(truncation);
 
-        if (p % 1.0 == 0.0) {
+        int[] dims = { 1 };
+        for (int k = 0; k < n; k++) {
 
-            return pow(function, (int) p);
+            dims = fit(dims, ladder.get(k).dims());
         }
 
-        TensorFunction sum = ZERO;
+        dims = truncation.limit(dims);
+        double[] re = new double[Tensor.product(dims)];
+        double[] im = function.coeffs.isReal() ? null : new double[re.length];
 
-        double prev = Math.pow(center, p);
+        // f^k/k!
+        double scale = 1.0;
+        for (int k = 0; k < n; k++) {
 
-        TensorFunction pow = ONE;
+            addShifted(ladder.get(k), scale, 0.0, dims, re, im);
+            scale /= k + 1;
+        }
 
-        double pfact_pmnfact = 1.0;
+        return new TensorFunction(toTensor(dims, re, im));
+    }
 
-        for (int n = 0; n < h; n++) {
+    /**
+     * Calculates the Taylor series of the exponential of a function through total
+     * degree <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to exponentiate.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public static final TensorFunction expSeries(TensorFunction function, int n) {
 
-            System.out.println(n + " : " + pfact_pmnfact);
+        return expSeries(function, n, MatContext.getTruncation());
+    }
 
-            double inner = 0.0;
-            double innerCoeff = pfact_pmnfact;
-            for (int k = 0; k < h - n; k++) {
+    /**
+     * Calculates the Taylor series of the exponential of a function through total
+     * degree <code>n - 1</code>, keeping only the terms within a truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to exponentiate.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public static final TensorFunction expSeries(TensorFunction function, int n, Truncation truncation) {
 
-                inner += innerCoeff;
-                System.out.println("   " + k + " : " + innerCoeff);
+        return function.series(EXP, n, truncation);
+    }
 
-                // (-1)^k * (p-n)! / (k! * (p-n-k))!
-                innerCoeff *= -(p - n - k) / (k + 1);
-            }
+    /**
+     * Calculates the Taylor series of the natural logarithm of a function through
+     * total degree <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is zero.
+     */
+    public static final TensorFunction log(TensorFunction function, int n) {
 
-            sum = sum.add(pow.multiply(inner * prev));
+        return log(function, n, MatContext.getTruncation());
+    }
 
-            // x^n
-            pow = pow.multiply(function);
+    /**
+     * Calculates the Taylor series of the natural logarithm of a function through
+     * total degree <code>n - 1</code>, keeping only the terms within a
+     * truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is zero.
+     */
+    public static final TensorFunction log(TensorFunction function, int n, Truncation truncation) {
 
-            // 1/(a^n*n!)
-            prev /= center * (n + 1);
+        return function.series(LOG, n, truncation);
+    }
 
-            // p!/(p-n)!
-            pfact_pmnfact *= (p - n);
-        }
+    /**
+     * Calculates the Taylor series of the sine of a function through total degree
+     * <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public static final TensorFunction sin(TensorFunction function, int n) {
 
-        return sum;
+        return sin(function, n, MatContext.getTruncation());
     }
 
-    public static final TensorFunction pow(TensorFunction function, int degree) {
+    /**
+     * Calculates the Taylor series of the sine of a function through total degree
+     * <code>n - 1</code>, keeping only the terms within a truncation. The cosine
+     * is calculated alongside, so a following call to <code>cos</code> is free.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public static final TensorFunction sin(TensorFunction function, int n, Truncation truncation) {
 
-        return function.pow(degree);
+        return function.series(SIN, n, truncation);
     }
 
     /**
-     * Iterates along each dimension of a tensor to calculate the coefficients from
-     * the derivatives.
+     * Calculates the Taylor series of the cosine of a function through total
+     * degree <code>n - 1</code>.
      * 
-     * @param mode        <code>int</code>: The current mode.
-     * @param coefficient <code>MatNumber</code>: The current coefficient.
-     * @param index       <code>int</code>: The current index in the coefficient
-     *                    array.
-     * @param indCoeff    <int</code>: The index coefficient for the current
-     *                    mode.
-     * @param dimensions  <int[]</code>: The dimensions to iterate over.
-     * @param coeffs      <code>MatNumber[]</code>: The coefficient array to fill.
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function.
      */
-    private static void factorIterate(int mode, MatNumber coefficient, int index, int indCoeff, int[] dimensions,
-            MatNumber[] coeffs) {
+    public static final TensorFunction cos(TensorFunction function, int n) {
 
-        // If the mode is out of bounds, set the coefficient.
-        if (mode >= dimensions.length) {
+        return cos(function, n, MatContext.getTruncation());
+    }
 
-            coeffs[index] = coeffs[index].multiply(coefficient);
+    /**
+     * Calculates the Taylor series of the cosine of a function through total
+     * degree <code>n - 1</code>, keeping only the terms within a truncation. The
+     * sine is calculated alongside, so a following call to <code>sin</code> is
+     * free.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public static final TensorFunction cos(TensorFunction function, int n, Truncation truncation) {
 
-            return;
-        }
+        return function.series(COS, n, truncation);
+    }
 
-        int length = dimensions[mode];
+    /**
+     * Calculates the Taylor series of the tangent of a function through total
+     * degree <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the tangent is singular at the constant term of
+     *         the function.
+     */
+    public static final TensorFunction tan(TensorFunction function, int n) {
 
-        // Iterate over each coefficient in this dimension.
-        for (int i = 0; i < length; i++) {
+        return tan(function, n, MatContext.getTruncation());
+    }
 
-            // Recurse to the next dimension.
-            factorIterate(mode + 1, coefficient, index + i * indCoeff, indCoeff * length, dimensions, coeffs);
+    /**
+     * Calculates the Taylor series of the tangent of a function through total
+     * degree <code>n - 1</code>, keeping only the terms within a truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the tangent is singular at the constant term of
+     *         the function.
+     */
+    public static final TensorFunction tan(TensorFunction function, int n, Truncation truncation) {
 
-            // Divide the coefficient by the next factor.
-            coefficient = coefficient.divide(i + 1);
-        }
+        return function.series(TAN, n, truncation);
     }
 
     /**
-     * Applies a set of arguments to this <code>TensorFunction</code> instance.
+     * Calculates the Taylor series of the hyperbolic sine of a function through
+     * total degree <code>n - 1</code>.
      * 
-     * @param args <code>double...</code>: The arguments to apply.
-     * @return <code>MatNumber</code>: The resulting value.
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function.
      */
-    @Override
-    public final MatNumber apply(double... args) {
+    public static final TensorFunction sinh(TensorFunction function, int n) {
 
-        return apply(new Vector(args));
+        return sinh(function, n, MatContext.getTruncation());
     }
 
     /**
-     * Applies a set of arguments to this <code>TensorFunction</code> instance.
+     * Calculates the Taylor series of the hyperbolic sine of a function through
+     * total degree <code>n - 1</code>, keeping only the terms within a
+     * truncation. The hyperbolic cosine is calculated alongside.
      * 
-     * @param args <code>MatNumber...</code>: The arguments to apply.
-     * @return <code>MatNumber</code>: The resulting value.
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
      */
-    @Override
-    public final MatNumber apply(MatNumber... args) {
+    public static final TensorFunction sinh(TensorFunction function, int n, Truncation truncation) {
 
-        return apply(new Vector(args));
+        return function.series(SINH, n, truncation);
     }
 
     /**
-     * Applies a vector of arguments to this <code>TensorFunction</code> instance.
+     * Calculates the Taylor series of the hyperbolic cosine of a function through
+     * total degree <code>n - 1</code>.
      * 
-     * @param args <code>Vector</code>: The arguments to apply.
-     * @return <code>MatNumber</code>: The resulting value.
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function.
      */
-    @Override
-    public final MatNumber apply(Vector args) {
+    public static final TensorFunction cosh(TensorFunction function, int n) {
 
-        int[] dimensions = coeffs.getDimensions();
-        int length = dimensions.length;
+        return cosh(function, n, MatContext.getTruncation());
+    }
 
-        // If there are not enough provided arguments, return null.
-        if (args.getSize() < length) {
+    /**
+     * Calculates the Taylor series of the hyperbolic cosine of a function through
+     * total degree <code>n - 1</code>, keeping only the terms within a
+     * truncation. The hyperbolic sine is calculated alongside.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public static final TensorFunction cosh(TensorFunction function, int n, Truncation truncation) {
 
-            return null;
-        }
+        return function.series(COSH, n, truncation);
+    }
 
-        // If there are too many provided arguments, trim them.
-        if (args.getSize() > length) {
+    /**
+     * Calculates the Taylor series of the hyperbolic tangent of a function through
+     * total degree <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the hyperbolic tangent is singular at the
+     *         constant term of the function.
+     */
+    public static final TensorFunction tanh(TensorFunction function, int n) {
 
-            MatNumber[] newArgs = new MatNumber[length];
-            for (int i = 0; i < length; i++) {
+        return tanh(function, n, MatContext.getTruncation());
+    }
 
-                newArgs[i] = args.get(i);
-            }
+    /**
+     * Calculates the Taylor series of the hyperbolic tangent of a function through
+     * total degree <code>n - 1</code>, keeping only the terms within a
+     * truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the hyperbolic tangent is singular at the
+     *         constant term of the function.
+     */
+    public static final TensorFunction tanh(TensorFunction function, int n, Truncation truncation) {
 
-            args = new Vector(newArgs);
-        }
+        return function.series(TANH, n, truncation);
+    }
 
-        Tensor v = param(args, dimensions);
-        return coeffs.innerProduct(v);
+    /**
+     * Calculates the Taylor series of the inverse tangent of a function through
+     * total degree <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>i</code> or <code>-i</code>.
+     */
+    public static final TensorFunction atan(TensorFunction function, int n) {
+
+        return atan(function, n, MatContext.getTruncation());
     }
 
     /**
-     * Generates a tensor of exponential terms for a given set of arguments.
+     * Calculates the Taylor series of the inverse tangent of a function through
+     * total degree <code>n - 1</code>, keeping only the terms within a
+     * truncation.
      * 
-     * @param args       <code>Vector</code>: The arguments to apply.
-     * @param dimensions <code>int[]</code>: The dimensions of the tensor to fill.
-     * @return <code>Tensor</code>: The calcalted tensor.
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>i</code> or <code>-i</code>.
      */
-    public static final Tensor param(Vector args, int[] dimensions) {
+    public static final TensorFunction atan(TensorFunction function, int n, Truncation truncation) {
 
-        int size = Tensor.product(dimensions);
-        MatNumber[] vals = new MatNumber[size];
+        return function.series(ATAN, n, truncation);
+    }
 
-        expIterate(0, MatNumber.ONE, args, 0, 1, dimensions, vals);
-        return new Tensor(dimensions, vals);
+    /**
+     * Calculates the Taylor series of the inverse hyperbolic tangent of a function
+     * through total degree <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>1</code> or <code>-1</code>.
+     */
+    public static final TensorFunction atanh(TensorFunction function, int n) {
+
+        return atanh(function, n, MatContext.getTruncation());
     }
 
     /**
-     * Iterates along each dimension of a tensor to calculate the exponents from a
-     * set of arguments.
+     * Calculates the Taylor series of the inverse hyperbolic tangent of a function
+     * through total degree <code>n - 1</code>, keeping only the terms within a
+     * truncation.
      * 
-     * @param mode        <code>int</code>: The current mode.
-     * @param coefficient <code>MatNumber</code>: The current coefficient.
-     * @param args        <code>Vector</code>: The arguments to apply.
-     * @param index       <code>int</code>: The current index in the coefficient
-     *                    array.
-     * @param indCoeff    <int</code>: The index coefficient for the current
-     *                    mode.
-     * @param dimensions  <int[]</code>: The dimensions to iterate over.
-     * @param coeffs      <code>MatNumber[]</code>: The coefficient array to fill.
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>1</code> or <code>-1</code>.
      */
-    private static void expIterate(int mode, MatNumber coeff, Vector args, int index, int indCoeff, int[] dimensions,
-            MatNumber[] coeffs) {
+    public static final TensorFunction atanh(TensorFunction function, int n, Truncation truncation) {
 
-        if (mode >= dimensions.length) {
+        return function.series(ATANH, n, truncation);
+    }
 
-            coeffs[index] = coeff;
-            return;
-        }
+    /**
+     * Calculates the Taylor series of the inverse sine of a function through total
+     * degree <code>n - 1</code>.
+     * 
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>1</code> or <code>-1</code>.
+     */
+    public static final TensorFunction asin(TensorFunction function, int n) {
 
-        MatNumber pow = args.get(mode);
-        int length = dimensions[mode];
+        return asin(function, n, MatContext.getTruncation());
+    }
 
-        for (int i = 0; i < length; i++) {
+    /**
+     * Calculates the Taylor series of the inverse sine of a function through total
+     * degree <code>n - 1</code>, keeping only the terms within a truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>1</code> or <code>-1</code>.
+     */
+    public static final TensorFunction asin(TensorFunction function, int n, Truncation truncation) {
 
-            expIterate(mode + 1, coeff, args, index + i * indCoeff, indCoeff * length, dimensions, coeffs);
-            coeff = coeff.multiply(pow);
-        }
+        return function.series(ASIN, n, truncation);
     }
 
     /**
-     * Computes the sum of this <code>TensorFunction</code> instance and another.
+     * Calculates the Taylor series of the inverse hyperbolic sine of a function
+     * through total degree <code>n - 1</code>.
      * 
-     * @param function <code>TensorFunction</code>: The function to add.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>i</code> or <code>-i</code>.
      */
-    public final TensorFunction add(TensorFunction function) {
+    public static final TensorFunction asinh(TensorFunction function, int n) {
 
-        Tensor t = coeffs.add(function.coeffs);
-        return new TensorFunction(t);
+        return asinh(function, n, MatContext.getTruncation());
     }
 
     /**
-     * Computes the difference between this <code>TensorFunction</code> instance and
-     * another.
+     * Calculates the Taylor series of the inverse hyperbolic sine of a function
+     * through total degree <code>n - 1</code>, keeping only the terms within a
+     * truncation.
      * 
-     * @param function <code>TensorFunction</code>: The function to subtract.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is
+     *         <code>i</code> or <code>-i</code>.
      */
-    public final TensorFunction subtract(TensorFunction function) {
+    public static final TensorFunction asinh(TensorFunction function, int n, Truncation truncation) {
 
-        Tensor t = coeffs.subtract(function.coeffs);
-        return new TensorFunction(t);
+        return function.series(ASINH, n, truncation);
     }
 
     /**
-     * Computes the product between this <code>TensorFunction</code> instance and
-     * another.
+     * Calculates the Taylor series of the reciprocal of a function through total
+     * degree <code>n - 1</code>.
      * 
-     * @param function <code>TensorFunction</code>: The function to multiply by.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is zero.
      */
-    @Override
-    public final TensorFunction multiply(TensorFunction function) {
+    public static final TensorFunction recip(TensorFunction function, int n) {
 
-        Tensor p = multiply(this.coeffs, function.coeffs);
-        return new TensorFunction(p);
+        return recip(function, n, MatContext.getTruncation());
     }
 
     /**
-     * Computes the product between this <code>TensorFunction</code> instance and a
-     * scalar.
+     * Calculates the Taylor series of the reciprocal of a function through total
+     * degree <code>n - 1</code>, keeping only the terms within a truncation.
      * 
-     * @param scalar <code>MatNumber</code>: The scalar to multiply by.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param function   <code>TensorFunction</code>: The function to apply to.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is zero.
      */
-    @Override
-    public final TensorFunction multiply(MatNumber scalar) {
+    public static final TensorFunction recip(TensorFunction function, int n, Truncation truncation) {
 
-        return new TensorFunction(coeffs.multiply(scalar));
+        return function.series(RECIP, n, truncation);
     }
 
     /**
-     * Computes the product between this <code>TensorFunction</code> instance and a
-     * scalar.
+     * Calculates the Taylor series of the square root of a function through total
+     * degree <code>n - 1</code>.
      * 
-     * @param scalar <code>double</code>: The scalar to multiply by.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param function <code>TensorFunction</code>: The function to apply to.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is zero.
      */
-    @Override
-    public final TensorFunction multiply(double scalar) {
+    public static final TensorFunction sqrt(TensorFunction function, int n) {
 
-        return new TensorFunction(coeffs.multiply(scalar));
+        return pow(function, 0.5, n);
     }
 
     /**
-     * Computes the polynomial product between two tensors.
+     * Calculates the Taylor series of a real power of a function through total
+     * degree <code>n - 1</code>, about the constant term of the function.
      * 
-     * @param t1 <code>Tensor</code>: The first tensor to multiply.
-     * @param t2 <code>Tensor</code>: The second tensor to multiply.
-     * @return <code>Tensor</code>: The calculated tensor.
+     * @param function <code>TensorFunction</code>: The function to raise.
+     * @param p        <code>double</code>: The exponent to apply.
+     * @param n        <code>int</code>: One more than the maximum total
+     *                 degree of the series.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is zero.
      */
-    private static Tensor multiply(Tensor t1, Tensor t2) {
+    public static final TensorFunction pow(TensorFunction function, double p, int n) {
 
-        int[] t1Dims = t1.getDimensions();
-        int[] t2Dims = t2.getDimensions();
+        return pow(function, p, n, MatContext.getTruncation());
+    }
 
-        // The new tensor should start as a constant in all dimensions.
-        int[] newDimensions = new int[Math.max(t1Dims.length, t2Dims.length)];
-        Arrays.fill(newDimensions, 1);
+    /**
+     * Calculates the Taylor series of a real power of a function through total
+     * degree <code>n - 1</code>, about the constant term of the function, keeping
+     * only the terms within a truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to raise.
+     * @param p          <code>double</code>: The exponent to apply.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term of the function is zero.
+     */
+    public static final TensorFunction pow(TensorFunction function, double p, int n, Truncation truncation) {
 
-        // Add the degrees of the first tensor.
-        for (int i = 0; i < t1Dims.length; i++) {
+        if (n <= 0) {
 
-            newDimensions[i] += t1Dims[i] - 1;
+            return ZERO;
         }
 
-        // Add the degrees of the second tensor.
-        for (int i = 0; i < t2Dims.length; i++) {
+        Truncation t = truncation.withTotal(n - 1);
+        return sum(Series.pow(function.homogeneous(t), p, t));
+    }
 
-            newDimensions[i] += t2Dims[i] - 1;
+    /**
+     * Calculates an elementary function series of this <code>TensorFunction</code>
+     * instance through total degree <code>n - 1</code>. Series are remembered for
+     * each truncation, and the sine and cosine, or hyperbolic sine and cosine, are
+     * remembered together.
+     * 
+     * @param kind       <code>int</code>: The kind of series.
+     * @param n          <code>int</code>: One more than the maximum total
+     *                   degree of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the series is singular at the constant term of
+     *         this function.
+     */
+    private TensorFunction series(int kind, int n, Truncation truncation) {
+
+        if (n <= 0) {
+
+            return ZERO;
         }
 
-        // Create the data and fill with zeros.
-        int newSize = Tensor.product(newDimensions);
-        MatNumber[] newCoeffs = new MatNumber[newSize];
-        Arrays.fill(newCoeffs, MatNumber.ZERO);
+        Truncation t = truncation.withTotal(n - 1);
+        return (TensorFunction) derived().computeIfAbsent(new Derivation(kind, 0, n, t), _ -> {
 
-        // Iterate through each index in the first tensor.
-        multiplyIterateFirst(0, t1, 0, 1, newDimensions, 0, 1, (coeff, index) -> {
+            TensorFunction[] f = homogeneous(t);
+            return switch (kind) {
 
-            // Iterate through each index in the second tensor.
-            multiplyIterateSecond(0, coeff, t2, 0, 1, newDimensions, index, 1, newCoeffs);
-        });
+            case EXP -> sum(Series.exp(f, t));
+            case LOG -> sum(Series.log(f, t));
+            case SIN, COS, SINH, COSH -> {
 
-        return new Tensor(newDimensions, newCoeffs);
-    }
+                boolean hyperbolic = kind == SINH || kind == COSH;
+                TensorFunction[][] sc = Series.sinCos(f, hyperbolic, t);
 
-    /**
-     * <code>MultiplyConsumer</code>: A functional interface for consuming
-     * coefficients and indices in the first stage of polynomial multiplication.
-     */
-    @FunctionalInterface
-    private interface MultiplyConsumer {
+                TensorFunction sin = sum(sc[0]);
+                TensorFunction cos = sum(sc[1]);
+                derived().put(new Derivation(hyperbolic ? SINH : SIN, 0, n, t), sin);
+                derived().put(new Derivation(hyperbolic ? COSH : COS, 0, n, t), cos);
 
-        /**
-         * Accepts a coefficient and index.
-         * 
-         * @param coeff <code>MatNumber</code>: The coefficient calculated in the first
-         *              stage.
-         * @param index <code>int</code>: The index offset calculated in the first
-         *              stage.
-         */
-        public void accept(MatNumber coeff, int index);
+                yield kind == SIN || kind == SINH ? sin : cos;
+            }
+            case TAN, TANH -> sum(Series.tan(f, kind == TANH, t));
+            case ATAN, ATANH -> sum(Series.atan(f, kind == ATANH, t));
+            case ASIN, ASINH -> sum(Series.asin(f, kind == ASINH, t));
+            case RECIP -> reciprocal(t);
+            default -> null;
+            };
+        });
     }
 
     /**
-     * Iterates through the first tensor in polynomial multiplication.
+     * Sums a set of homogeneous components.
      * 
-     * @param mode        <code>int</code>: The current mode.
-     * @param first       <code>Tensor</code>: The first tensor.
-     * @param indexOld    <code>int</code>: The current index in the first tensor.
-     * @param indCoeffOld <code>int</code>: The index coefficient for the first
-     *                    tensor.
-     * @param newDims     <code>int[]</code>: The dimensions of the new tensor.
-     * @param indexNew    <code>int</code>: The current index in the new tensor.
-     * @param indCoeffNew <code>int</code>: The index coefficient for the new
-     *                    tensor.
-     * @param p           <code>MultiplyConsumer</code>: The consumer to apply at
-     *                    the end of
-     *                    iteration in the first tensor.
+     * @param components <code>TensorFunction[]</code>: The components to sum,
+     *                   where zero components are <code>null</code>.
+     * @return <code>TensorFunction</code>: The calculated sum, or
+     *         <code>null</code> if the set itself is <code>null</code>.
      */
-    private static void multiplyIterateFirst(int mode, Tensor first, int indexOld, int indCoeffOld, int[] newDims,
-            int indexNew, int indCoeffNew, MultiplyConsumer p) {
+    private static TensorFunction sum(TensorFunction[] components) {
 
-        if (mode >= first.getNumDimensions()) {
-
-            MatNumber coeff = first.get(indexOld);
-            if (!coeff.equals(MatNumber.ZERO)) {
+        if (components == null) {
 
-                p.accept(coeff, indexNew);
-            }
-
-            return;
+            return null;
         }
 
-        int oldLength = first.getDimension(mode);
-        int newLength = newDims[mode];
+        TensorFunction sum = ZERO;
+        for (TensorFunction component : components) {
 
-        for (int i = 0; i < oldLength; i++) {
+            if (component != null) {
 
-            multiplyIterateFirst(mode + 1, first, indexOld + i * indCoeffOld, indCoeffOld * oldLength, newDims,
-                    indexNew + i * indCoeffNew, indCoeffNew * newLength, p);
+                sum = sum.add(component);
+            }
         }
+
+        return sum;
     }
 
     /**
-     * Iterates through the second tensor in polynomial multiplication.
+     * Retrieves the constant term of this <code>TensorFunction</code> instance.
      * 
-     * @param mode        <code>int</code>: The current mode.
-     * @param coeff       <code>MatNumber</code>: The coefficient from the first
-     *                    tensor.
-     * @param second      <code>Tensor</code>: The second tensor.
-     * @param indexOld    <code>int</code>: The current index in the second tensor.
-     * @param indCoeffOld <code>int</code>: The index coefficient for the second
-     *                    tensor.
-     * @param newDims     <code>int[]</code>: The dimensions of the new tensor.
-     * @param indexNew    <code>int</code>: The current index in the new tensor.
-     * @param indCoeffNew <code>int</code>: The index coefficient for the new
-     *                    tensor.
-     * @param data        <code>MatNumber[]</code>: The data array of the new
-     *                    tensor.
+     * @return <code>MatNumber</code>: The constant term.
      */
-    private static void multiplyIterateSecond(int mode, MatNumber coeff, Tensor second, int indexOld, int indCoeffOld,
-            int[] newDims, int indexNew, int indCoeffNew, MatNumber[] data) {
+    final MatNumber constant() {
 
-        if (mode >= second.getNumDimensions()) {
+        return coeffs.size() == 0 ? MatNumber.ZERO : coeffs.get(0);
+    }
 
-            coeff = coeff.multiply(second.get(indexOld));
+    /**
+     * Splits this <code>TensorFunction</code> instance into its homogeneous
+     * components within a truncation, where the component of degree
+     * <code>k</code> holds the terms of total degree <code>k</code>. Components
+     * are remembered for each truncation.
+     * 
+     * @param truncation <code>Truncation</code>: The truncation to apply, which
+     *                   must cap the total degree.
+     * @return <code>TensorFunction[]</code>: The components, from degree
+     *         <code>0</code> to the total cap, where zero components are
+     *         <code>null</code>.
+     */
+    final TensorFunction[] homogeneous(Truncation truncation) {
 
-            if (!coeff.equals(MatNumber.ZERO)) {
+        return (TensorFunction[]) derived().computeIfAbsent(new Derivation(COMPONENTS, 0, 0, truncation), _ -> {
 
-                data[indexNew] = data[indexNew].add(coeff);
-            }
+            int total = truncation.getTotal();
+            int[] newDims = truncation.limit(coeffs.getDimensions());
+            int m = newDims.length;
 
-            return;
-        }
+            Jet jet = jet(coeffs, newDims, total);
+            int count = jet.indices().length;
 
-        for (int i = 0; i < second.getDimension(mode); i++) {
+            TensorFunction[] components = new TensorFunction[total + 1];
+            for (int start = 0, end; start < count; start = end) {
 
-            multiplyIterateSecond(mode + 1, coeff, second, indexOld + i * indCoeffOld,
-                    indCoeffOld * second.getDimension(mode), newDims,
-                    indexNew + i * indCoeffNew, indCoeffNew * newDims[mode], data);
+                int degree = jet.degrees()[start];
+                end = start;
+                while (end < count && jet.degrees()[end] == degree) {
 
-        }
-    }
+                    end++;
+                }
 
-    /**
-     * Calculates the nth power of this <code>TensorFunction</code> instance.
-     * 
-     * @param n <code>int</code>: The exponent to apply.
-     * @return <code>TensorFunction</code>: The calculated function.
-     */
-    public final TensorFunction pow(int n) {
+                // No term of degree k has an exponent above k in any mode.
+                int[] dims = new int[m];
+                for (int d = 0; d < m; d++) {
 
-        if (n <= 0) {
+                    dims[d] = Math.min(newDims[d], degree + 1);
+                }
 
-            if (n == 0) {
+                MatNumber[] data = new MatNumber[Tensor.product(dims)];
+                Arrays.fill(data, MatNumber.ZERO);
+                for (int k = start; k < end; k++) {
 
-                int[] dims = new int[getNumArgs()];
-                Arrays.fill(dims, 1);
-                return new TensorFunction(new Tensor(dims, 1));
-            }
+                    int index = 0;
+                    int factor = 1;
+                    for (int d = 0; d < m; d++) {
 
-            return null;
-        }
+                        index += jet.exponents()[k * m + d] * factor;
+                        factor *= dims[d];
+                    }
 
-        Tensor t = coeffs;
-        for (int i = 1; i < n; i++) {
+                    double im = jet.im() == null ? 0.0 : jet.im()[k];
+                    data[index] = im == 0.0 ? new Real(jet.re()[k]) : new Complex(jet.re()[k], im);
+                }
 
-            t = multiply(coeffs, t);
-        }
+                components[degree] = new TensorFunction(new Tensor(dims, data));
+            }
 
-        return new TensorFunction(t);
+            return components;
+        });
     }
 
     /**
-     * Computes the quotient between this <code>TensorFunction</code> instance and
-     * another.
+     * Calculates the first <code>h</code> terms of the binomial series of a real
+     * power of a function about a center.
      * 
-     * @param function <code>TensorFunction</code>: The function to divide by.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param function <code>TensorFunction</code>: The function to raise.
+     * @param p        <code>double</code>: The exponent to apply, which may be
+     *                 negative.
+     * @param h        <code>int</code>: The number of series terms.
+     * @param center   <code>double</code>: The center of the series.
+     * @return <code>TensorFunction</code>: The calculated function. A positive
+     *         integer exponent gives the exact power and a zero exponent gives
+     *         <code>ONE</code>; any other exponent, including every negative
+     *         one, gives the binomial series, which converges where the function
+     *         lies within <code>|center|</code> of the center.
      */
-    @Override
-    public final TensorFunction divide(TensorFunction function) {
+    public static final TensorFunction pow(TensorFunction function, double p, int h, double center) {
 
-        // TODO: Implement divison.
-        return null;
+        return pow(function, p, h, center, MatContext.getTruncation());
     }
 
     /**
-     * Computes the quotient between this <code>TensorFunction</code> instance and a
-     * scalar.
+     * Calculates the first <code>h</code> terms of the binomial series of a real
+     * power of a function about a center, keeping only the terms within a
+     * truncation. The powers of the function are taken from the shared power
+     * ladder cache.
      * 
-     * @param scalar <code>double</code>: The scalar to divide by.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param function   <code>TensorFunction</code>: The function to raise.
+     * @param p          <code>double</code>: The exponent to apply, which may be
+     *                   negative.
+     * @param h          <code>int</code>: The number of series terms.
+     * @param center     <code>double</code>: The center of the series.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function. A positive
+     *         integer exponent gives the exact power and a zero exponent gives
+     *         <code>ONE</code>; any other exponent, including every negative
+     *         one, gives the binomial series, which converges where the function
+     *         lies within <code>|center|</code> of the center.
      */
-    @Override
+    public static final TensorFunction pow(TensorFunction function, double p, int h, double center,
+            Truncation truncation) {
+
+        if (p == 0.0) {
+
+            return ONE;
+        }
+
+        if (p > 0.0 && p % 1.0 == 0.0) {
+
+            return function.pow((int) p, truncation);
+        }
+
+        if (h <= 0) {
+
+            return ZERO;
+        }
+
+        // The series is a combination of the powers of the function, which are
+        // taken from its shared power ladder.
+        Ladder ladder = function.ladder(truncation);
+        ladder.get(h - 1);
+
+        int[] dims = { 1 };
+        double[] scales = new double[h];
+
+        double prev = Math.pow(center, p);
+
+        double pfact_pmnfact = 1.0;
+
+        for (int n = 0; n < h; n++) {
+
+            double inner = 0.0;
+            double innerCoeff = pfact_pmnfact;
+            for (int k = 0; k < h - n; k++) {
+
+                inner += innerCoeff;
+
+                // (-1)^k * (p-n)! / (k! * (p-n-k))!
+                innerCoeff *= -(p - n - k) / (k + 1);
+            }
+
+            scales[n] = inner * prev;
+            dims = fit(dims, ladder.get(n).dims());
+
+            // 1/(a^n*n!)
+            prev /= center * (n + 1);
+
+            // p!/(p-n)!
+            pfact_pmnfact *= (p - n);
+        }
+
+        dims = truncation.limit(dims);
+        double[] re = new double[Tensor.product(dims)];
+        double[] im = function.coeffs.isReal() ? null : new double[re.length];
+        for (int n = 0; n < h; n++) {
+
+            addShifted(ladder.get(n), scales[n], 0.0, dims, re, im);
+        }
+
+        return new TensorFunction(toTensor(dims, re, im));
+    }
+
+    public static final TensorFunction pow(TensorFunction function, int degree) {
+
+        return function.pow(degree);
+    }
+
+    /**
+     * Iterates along each dimension of a tensor to calculate the coefficients from
+     * the derivatives.
+     * 
+     * @param mode        <code>int</code>: The current mode.
+     * @param coefficient <code>MatNumber</code>: The current coefficient.
+     * @param index       <code>int</code>: The current index in the coefficient
+     *                    array.
+     * @param indCoeff    <int</code>: The index coefficient for the current
+     *                    mode.
+     * @param dimensions  <int[]</code>: The dimensions to iterate over.
+     * @param coeffs      <code>MatNumber[]</code>: The coefficient array to fill.
+     */
+    private static void factorIterate(int mode, MatNumber coefficient, int index, int indCoeff, int[] dimensions,
+            MatNumber[] coeffs) {
+
+        // If the mode is out of bounds, set the coefficient.
+        if (mode >= dimensions.length) {
+
+            coeffs[index] = coeffs[index].multiply(coefficient);
+
+            return;
+        }
+
+        int length = dimensions[mode];
+
+        // Iterate over each coefficient in this dimension.
+        for (int i = 0; i < length; i++) {
+
+            // Recurse to the next dimension.
+            factorIterate(mode + 1, coefficient, index + i * indCoeff, indCoeff * length, dimensions, coeffs);
+
+            // Divide the coefficient by the next factor.
+            coefficient = coefficient.divide(i + 1);
+        }
+    }
+
+    /**
+     * Applies a set of arguments to this <code>TensorFunction</code> instance.
+     * 
+     * @param args <code>double...</code>: The arguments to apply.
+     * @return <code>MatNumber</code>: The resulting value.
+     */
+    @Override
+    public final MatNumber apply(double... args) {
+
+        return apply(new Vector(args));
+    }
+
+    /**
+     * Applies a set of arguments to this <code>TensorFunction</code> instance.
+     * 
+     * @param args <code>MatNumber...</code>: The arguments to apply.
+     * @return <code>MatNumber</code>: The resulting value.
+     */
+    @Override
+    public final MatNumber apply(MatNumber... args) {
+
+        return apply(new Vector(args));
+    }
+
+    /**
+     * Applies a vector of arguments to this <code>TensorFunction</code> instance.
+     * 
+     * @param args <code>Vector</code>: The arguments to apply.
+     * @return <code>MatNumber</code>: The resulting value.
+     */
+    @Override
+    public final MatNumber apply(Vector args) {
+
+        int[] dimensions = coeffs.getDimensions();
+        int length = dimensions.length;
+
+        // If there are not enough provided arguments, return null.
+        if (args.getSize() < length) {
+
+            return null;
+        }
+
+        // If there are too many provided arguments, trim them.
+        if (args.getSize() > length) {
+
+            MatNumber[] newArgs = new MatNumber[length];
+            for (int i = 0; i < length; i++) {
+
+                newArgs[i] = args.get(i);
+            }
+
+            args = new Vector(newArgs);
+        }
+
+        // Real coefficients can be evaluated without complex multiplication.
+        double[][] p = parts();
+        if (p[1] == null) {
+
+            return evaluateReal(p[0], dimensions, args);
+        }
+
+        Tensor v = param(args, dimensions);
+        return coeffs.innerProduct(v);
+    }
+
+    /**
+     * Applies a set of real arguments to this <code>TensorFunction</code>
+     * instance without forming any numbers, by applying Horner's rule along one
+     * mode at a time in place.
+     * 
+     * @param x <code>double[]</code>: The arguments to apply.
+     * @return <code>double</code>: The resulting value, or <code>NaN</code> if
+     *         there are not enough provided arguments or the coefficients of this
+     *         <code>TensorFunction</code> instance are not real.
+     */
+    final double applyReal(double[] x) {
+
+        int[] dimensions = coeffs.getDimensions();
+
+        double[][] p = parts();
+        if (x.length < dimensions.length || p[1] != null) {
+
+            return Double.NaN;
+        }
+
+        if (p[0].length == 0) {
+
+            return 0.0;
+        }
+
+        // Each strand is collapsed into a slot it has already been read from.
+        double[] data = p[0].clone();
+        int size = data.length;
+        for (int mode = 0; mode < dimensions.length; mode++) {
+
+            int n = dimensions[mode];
+            int strands = size / n;
+            double arg = x[mode];
+
+            for (int s = 0, start = 0; s < strands; s++, start += n) {
+
+                double sum = 0.0;
+                for (int i = n - 1; i >= 0; i--) {
+
+                    sum = sum * arg + data[start + i];
+                }
+                data[s] = sum;
+            }
+
+            size = strands;
+        }
+
+        return data[0];
+    }
+
+    /**
+     * Evaluates a real coefficient tensor at a set of real or complex arguments by
+     * applying Horner's rule along one mode at a time. While the partially
+     * evaluated coefficients are still real, a complex argument <code>z</code> is
+     * applied through the quadratic <code>x^2 - 2Re(z)x + |z|^2</code> (Goertzel's
+     * algorithm), which only requires real arithmetic.
+     *
+     * @param coeffs     <code>double[]</code>: The real coefficients to evaluate.
+     * @param dimensions <code>int[]</code>: The dimensions of the coefficients.
+     * @param args       <code>Vector</code>: The arguments to apply.
+     * @return <code>MatNumber</code>: The resulting value.
+     */
+    private static MatNumber evaluateReal(double[] coeffs, int[] dimensions, Vector args) {
+
+        if (coeffs.length == 0) {
+
+            return MatNumber.ZERO;
+        }
+
+        double[][] values = collapse(coeffs, null, dimensions, dimensions.length, args);
+        return values[1] == null ? new Real(values[0][0]) : new Complex(values[0][0], values[1][0]);
+    }
+
+    /**
+     * Evaluates the leading modes of a coefficient tensor at a set of real or
+     * complex arguments by applying Horner's rule along one mode at a time,
+     * leaving the coefficients of the remaining modes.
+     *
+     * @param coeffs     <code>double[]</code>: The real components of the
+     *                   coefficients to evaluate.
+     * @param imag       <code>double[]</code>: The imaginary components of the
+     *                   coefficients, or <code>null</code> if every coefficient
+     *                   is real.
+     * @param dimensions <code>int[]</code>: The dimensions of the coefficients.
+     * @param modes      <code>int</code>: The number of leading modes to
+     *                   evaluate.
+     * @param args       <code>Vector</code>: The arguments to apply.
+     * @return <code>double[][]</code>: The real components of the remaining
+     *         coefficients, followed by their imaginary components or
+     *         <code>null</code> if every one is real.
+     */
+    private static double[][] collapse(double[] coeffs, double[] imag, int[] dimensions, int modes, Vector args) {
+
+        double[] re = coeffs;
+        double[] im = imag;
+        int length = coeffs.length;
+
+        // Mode 0 is contiguous, so each pass collapses consecutive strands.
+        for (int mode = 0; mode < modes; mode++) {
+
+            int n = dimensions[mode];
+            int strands = length / n;
+
+            MatNumber arg = args.get(mode);
+            double x = arg.real();
+            double y = arg.imag();
+
+            double[] newRe = new double[strands];
+            double[] newIm = (im != null || y != 0.0) ? new double[strands] : null;
+
+            for (int s = 0, start = 0; s < strands; s++, start += n) {
+
+                if (im == null && y == 0.0) {
+
+                    // Real coefficients, real argument.
+                    double sum = 0.0;
+                    for (int i = n - 1; i >= 0; i--) {
+
+                        sum = sum * x + re[start + i];
+                    }
+                    newRe[s] = sum;
+                } else if (im == null) {
+
+                    // Real coefficients, complex argument:
+                    // b[k] = a[k] + 2Re(z)b[k + 1] - |z|^2 b[k + 2]
+                    // p(z) = a[0] + z b[1] - |z|^2 b[2]
+                    double r = 2.0 * x;
+                    double q = x * x + y * y;
+                    double b1 = 0.0;
+                    double b2 = 0.0;
+                    for (int i = n - 1; i >= 1; i--) {
+
+                        double b0 = re[start + i] + r * b1 - q * b2;
+                        b2 = b1;
+                        b1 = b0;
+                    }
+                    newRe[s] = re[start] + x * b1 - q * b2;
+                    newIm[s] = y * b1;
+                } else {
+
+                    // Complex coefficients from a previous mode.
+                    double sumRe = 0.0;
+                    double sumIm = 0.0;
+                    for (int i = n - 1; i >= 0; i--) {
+
+                        double t = sumRe * x - sumIm * y + re[start + i];
+                        sumIm = sumRe * y + sumIm * x + im[start + i];
+                        sumRe = t;
+                    }
+                    newRe[s] = sumRe;
+                    newIm[s] = sumIm;
+                }
+            }
+
+            re = newRe;
+            im = newIm;
+            length = strands;
+        }
+
+        return new double[][] { re, im };
+    }
+
+    /**
+     * Retrieves the dimensions of the coefficients of this
+     * <code>TensorFunction</code> instance.
+     *
+     * @return <code>int[]</code>: A copy of the dimensions.
+     */
+    final int[] dimensions() {
+
+        return coeffs.getDimensions();
+    }
+
+    /**
+     * Stacks a list of functions into a single function with an additional,
+     * final mode indexing the functions, so that operations on every function at
+     * once become a single pass over one coefficient tensor.
+     *
+     * @param functions <code>TensorFunction[]</code>: The functions to stack.
+     * @param dims      <code>int[][]</code>: The dimensions of each function, or
+     *                  <code>null</code> for functions which are zero.
+     * @param common    <code>int[]</code>: The dimensions each function is padded
+     *                  to, which must be at least those of every function.
+     * @return <code>TensorFunction</code>: The stacked function.
+     */
+    static TensorFunction stack(TensorFunction[] functions, int[][] dims, int[] common) {
+
+        int block = Tensor.product(common);
+        int[] stackedDims = Arrays.copyOf(common, common.length + 1);
+        stackedDims[common.length] = functions.length;
+
+        double[] re = new double[block * functions.length];
+        double[] im = null;
+        for (int k = 0; k < functions.length; k++) {
+
+            if (dims[k] == null) {
+
+                continue;
+            }
+
+            double[][] p = functions[k].parts();
+            if (p[1] != null && im == null) {
+
+                im = new double[re.length];
+            }
+
+            copyBlock(p[0], p[1], dims[k], re, im, common, k * block, true);
+        }
+
+        return new TensorFunction(toTensor(stackedDims, re, im));
+    }
+
+    /**
+     * Extracts one function from a function stacked by <code>stack</code>.
+     *
+     * @param index <code>int</code>: The index of the function along the final
+     *              mode.
+     * @param dims  <code>int[]</code>: The dimensions of the function.
+     * @return <code>TensorFunction</code>: The extracted function.
+     */
+    final TensorFunction unstack(int index, int[] dims) {
+
+        int[] stackedDims = coeffs.getDimensions();
+        int[] common = Arrays.copyOf(stackedDims, stackedDims.length - 1);
+        int block = Tensor.product(common);
+
+        double[][] p = parts();
+        int size = Tensor.product(dims);
+        double[] re = new double[size];
+        double[] im = p[1] == null ? null : new double[size];
+
+        copyBlock(re, im, dims, p[0], p[1], common, index * block, false);
+        return new TensorFunction(toTensor(dims, re, im));
+    }
+
+    /**
+     * Copies the coefficients of a function between its own layout and a padded
+     * block of a larger layout.
+     *
+     * @param re     <code>double[]</code>: The real components in the function's
+     *               own layout.
+     * @param im     <code>double[]</code>: The imaginary components in the
+     *               function's own layout, or <code>null</code>.
+     * @param dims   <code>int[]</code>: The dimensions of the function.
+     * @param padRe  <code>double[]</code>: The real components in the padded
+     *               layout.
+     * @param padIm  <code>double[]</code>: The imaginary components in the padded
+     *               layout, or <code>null</code>.
+     * @param common <code>int[]</code>: The dimensions of the padded block.
+     * @param offset <code>int</code>: The start of the block in the padded
+     *               layout.
+     * @param pad    <code>boolean</code>: Whether to copy into the padded layout,
+     *               rather than out of it.
+     */
+    private static void copyBlock(double[] re, double[] im, int[] dims, double[] padRe, double[] padIm, int[] common,
+            int offset, boolean pad) {
+
+        int n = dims.length;
+        int[] strides = new int[n];
+        for (int d = 0, stride = 1; d < n; d++) {
+
+            strides[d] = stride;
+            stride *= common[d];
+        }
+
+        int[] e = new int[n];
+        for (int k = 0; k < re.length; k++) {
+
+            int index = offset;
+            for (int d = 0; d < n; d++) {
+
+                index += e[d] * strides[d];
+            }
+
+            if (pad) {
+
+                padRe[index] = re[k];
+                if (im != null) {
+
+                    padIm[index] = im[k];
+                }
+            } else {
+
+                re[k] = padRe[index];
+                if (im != null) {
+
+                    im[k] = padIm[index];
+                }
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < n; d++) {
+
+                if (++e[d] < dims[d]) {
+
+                    break;
+                }
+
+                e[d] = 0;
+            }
+        }
+    }
+
+    /**
+     * Applies a vector of arguments to every mode of this
+     * <code>TensorFunction</code> instance but the last, in a single pass over
+     * its coefficients. For a function stacked by <code>stack</code>, this
+     * evaluates every stacked function at once.
+     *
+     * @param args <code>Vector</code>: The arguments to apply, of which there
+     *             must be at least one fewer than the modes.
+     * @return <code>MatNumber[]</code>: The resulting values along the last mode.
+     */
+    final MatNumber[] applyLeading(Vector args) {
+
+        int[] dimensions = coeffs.getDimensions();
+
+        double[][] p = parts();
+        double[][] values = collapse(p[0], p[1], dimensions, dimensions.length - 1, args);
+
+        MatNumber[] result = new MatNumber[values[0].length];
+        for (int k = 0; k < result.length; k++) {
+
+            double im = values[1] == null ? 0.0 : values[1][k];
+            result[k] = im == 0.0 ? new Real(values[0][k]) : new Complex(values[0][k], im);
+        }
+
+        return result;
+    }
+
+    /**
+     * Applies a set of arguments to this <code>TensorFunction</code> instance
+     * while calculating its gradient at the same point. Both are accumulated in a
+     * single pass over the coefficients by applying Horner's rule along one mode
+     * at a time, carrying the partial derivatives of the modes which have already
+     * been applied alongside each partially evaluated coefficient.
+     *
+     * @param x       <code>double[]</code>: The arguments to apply.
+     * @param gradOut <code>double[]</code>: The array to fill with the partial
+     *                derivatives with respect to each argument. Partial
+     *                derivatives with respect to arguments beyond those of this
+     *                <code>TensorFunction</code> instance are <code>0.0</code>.
+     * @return <code>double</code>: The resulting value, or <code>NaN</code> if
+     *         there are not enough provided arguments or the coefficients of this
+     *         <code>TensorFunction</code> instance are not real.
+     */
+    public final double applyWithGradient(double[] x, double[] gradOut) {
+
+        int[] dimensions = coeffs.getDimensions();
+        int length = dimensions.length;
+
+        double[][] p = parts();
+        if (x.length < length || p[1] != null) {
+
+            return Double.NaN;
+        }
+
+        Arrays.fill(gradOut, 0.0);
+
+        double[] data = p[0];
+        if (data.length == 0) {
+
+            return 0.0;
+        }
+
+        // Each partially evaluated coefficient is stored as its value followed by
+        // its partial derivatives with respect to the modes already applied.
+        int comps = 1;
+        int size = data.length;
+
+        for (int mode = 0; mode < length; mode++) {
+
+            int n = dimensions[mode];
+            int strands = size / n;
+            double arg = x[mode];
+
+            int newComps = comps + 1;
+            double[] newData = new double[strands * newComps];
+
+            for (int s = 0; s < strands; s++) {
+
+                int out = s * newComps;
+
+                double value = 0.0;
+                double deriv = 0.0;
+                for (int i = n - 1; i >= 0; i--) {
+
+                    int in = (s * n + i) * comps;
+
+                    deriv = deriv * arg + value;
+                    value = value * arg + data[in];
+
+                    for (int k = 1; k < comps; k++) {
+
+                        newData[out + k] = newData[out + k] * arg + data[in + k];
+                    }
+                }
+
+                newData[out] = value;
+                newData[out + comps] = deriv;
+            }
+
+            data = newData;
+            comps = newComps;
+            size = strands;
+        }
+
+        System.arraycopy(data, 1, gradOut, 0, Math.min(length, gradOut.length));
+
+        return data[0];
+    }
+
+    /**
+     * Calculates the directional derivative of this <code>TensorFunction</code>
+     * instance at a point, without constructing its gradient. The coefficients are
+     * evaluated once along the line <code>x + tv</code>, carrying the derivative
+     * with respect to <code>t</code> alongside each value, so the cost is about
+     * twice that of one evaluation.
+     *
+     * @param x <code>double[]</code>: The point to evaluate at.
+     * @param v <code>double[]</code>: The direction to differentiate along.
+     * @return <code>double</code>: The resulting value, or <code>NaN</code> if
+     *         there are not enough provided arguments or the coefficients of this
+     *         <code>TensorFunction</code> instance are not real.
+     */
+    public final double directionalDerivativeAt(double[] x, double[] v) {
+
+        double[][] result = forwardAt(x, v, false);
+        return result == null ? Double.NaN : result[1][0];
+    }
+
+    /**
+     * Calculates the product between the Hessian of this
+     * <code>TensorFunction</code> instance at a point and a vector, without
+     * constructing any second derivatives. The single pass of
+     * <code>applyWithGradient</code> is itself differentiated along the line
+     * <code>x + tv</code>, so the derivative of the gradient with respect to
+     * <code>t</code>, which is the product, costs a small multiple of one
+     * gradient evaluation.
+     *
+     * @param x   <code>double[]</code>: The point to evaluate at.
+     * @param v   <code>double[]</code>: The vector to multiply by.
+     * @param out <code>double[]</code>: The array to fill with the product.
+     *            Entries beyond the arguments of this <code>TensorFunction</code>
+     *            instance are <code>0.0</code>.
+     * @return <code>double</code>: The directional derivative along the vector,
+     *         which is calculated alongside the product, or <code>NaN</code> if
+     *         there are not enough provided arguments or the coefficients of this
+     *         <code>TensorFunction</code> instance are not real.
+     */
+    public final double hessianVectorProductAt(double[] x, double[] v, double[] out) {
+
+        double[][] result = forwardAt(x, v, true);
+        if (result == null) {
+
+            return Double.NaN;
+        }
+
+        Arrays.fill(out, 0.0);
+        System.arraycopy(result[1], 1, out, 0, Math.min(getNumArgs(), out.length));
+
+        return result[1][0];
+    }
+
+    /**
+     * Evaluates this <code>TensorFunction</code> instance along the line
+     * <code>x + tv</code> by applying Horner's rule along one mode at a time, in
+     * the arithmetic of dual numbers so that the derivative of every quantity
+     * with respect to <code>t</code> is carried alongside it. If requested, the
+     * partial derivatives of the modes already applied are carried as in
+     * <code>applyWithGradient</code>, and their derivatives form the product
+     * between the Hessian and <code>v</code>.
+     *
+     * @param x        <code>double[]</code>: The point to evaluate at.
+     * @param v        <code>double[]</code>: The direction of the line.
+     * @param gradient <code>boolean</code>: Whether or not to carry the partial
+     *                 derivatives.
+     * @return <code>double[][]</code>: The value followed by any partial
+     *         derivatives, and then their derivatives with respect to
+     *         <code>t</code>, or <code>null</code> if there are not enough
+     *         provided arguments or the coefficients are not real.
+     */
+    private double[][] forwardAt(double[] x, double[] v, boolean gradient) {
+
+        int[] dimensions = coeffs.getDimensions();
+        int length = dimensions.length;
+
+        double[][] p = parts();
+        if (x.length < length || v.length < length || p[1] != null) {
+
+            return null;
+        }
+
+        double[] data = p[0];
+        double[] dot = new double[data.length];
+        if (data.length == 0) {
+
+            return new double[][] { new double[length + 1], new double[length + 1] };
+        }
+
+        int comps = 1;
+        int size = data.length;
+
+        for (int mode = 0; mode < length; mode++) {
+
+            int n = dimensions[mode];
+            int strands = size / n;
+            double arg = x[mode];
+            double dir = v[mode];
+
+            int newComps = gradient ? comps + 1 : 1;
+            double[] newData = new double[strands * newComps];
+            double[] newDot = new double[strands * newComps];
+
+            for (int s = 0; s < strands; s++) {
+
+                int out = s * newComps;
+
+                double value = 0.0;
+                double valueDot = 0.0;
+                double deriv = 0.0;
+                double derivDot = 0.0;
+                for (int i = n - 1; i >= 0; i--) {
+
+                    int in = (s * n + i) * comps;
+
+                    // (a + a'e)(x + ve) = ax + (a'x + av)e
+                    derivDot = derivDot * arg + deriv * dir + valueDot;
+                    deriv = deriv * arg + value;
+
+                    valueDot = valueDot * arg + value * dir + dot[in];
+                    value = value * arg + data[in];
+
+                    for (int k = 1; k < newComps - 1; k++) {
+
+                        double partial = newData[out + k];
+                        newData[out + k] = partial * arg + data[in + k];
+                        newDot[out + k] = newDot[out + k] * arg + partial * dir + dot[in + k];
+                    }
+                }
+
+                newData[out] = value;
+                newDot[out] = valueDot;
+                if (gradient) {
+
+                    newData[out + comps] = deriv;
+                    newDot[out + comps] = derivDot;
+                }
+            }
+
+            data = newData;
+            dot = newDot;
+            comps = newComps;
+            size = strands;
+        }
+
+        return new double[][] { data, dot };
+    }
+
+    /**
+     * Calculates the Laplacian of this <code>TensorFunction</code> instance at a
+     * point, without constructing any second derivatives. Horner's rule is applied
+     * along one mode at a time, carrying the first and second derivatives along
+     * the current mode, and the sum of the second derivatives along the modes
+     * already applied, alongside each partially evaluated coefficient.
+     *
+     * @param point <code>double...</code>: The point to evaluate at.
+     * @return <code>double</code>: The resulting value, or <code>NaN</code> if
+     *         there are not enough provided arguments or the coefficients of this
+     *         <code>TensorFunction</code> instance are not real.
+     */
+    public final double laplacianAt(double... point) {
+
+        int[] dimensions = coeffs.getDimensions();
+
+        double[][] p = parts();
+        if (point.length < dimensions.length || p[1] != null) {
+
+            return Double.NaN;
+        }
+
+        double[] data = p[0];
+        if (data.length == 0) {
+
+            return 0.0;
+        }
+
+        double[] lap = new double[data.length];
+        int size = data.length;
+
+        for (int mode = 0; mode < dimensions.length; mode++) {
+
+            int n = dimensions[mode];
+            int strands = size / n;
+            double arg = point[mode];
+
+            double[] newData = new double[strands];
+            double[] newLap = new double[strands];
+            for (int s = 0, start = 0; s < strands; s++, start += n) {
+
+                double value = 0.0;
+                double deriv = 0.0;
+                double half = 0.0;
+                double sum = 0.0;
+                for (int i = n - 1; i >= 0; i--) {
+
+                    half = half * arg + deriv;
+                    deriv = deriv * arg + value;
+                    value = value * arg + data[start + i];
+                    sum = sum * arg + lap[start + i];
+                }
+
+                // Horner's rule accumulates half of the second derivative.
+                newData[s] = value;
+                newLap[s] = sum + 2.0 * half;
+            }
+
+            data = newData;
+            lap = newLap;
+            size = strands;
+        }
+
+        return lap[0];
+    }
+
+    /**
+     * Calculates the first partial derivative of this <code>TensorFunction</code>
+     * instance with respect to one argument at a real point, without constructing
+     * the derivative function.
+     *
+     * @param mode  <code>int</code>: The mode to differentiate along.
+     * @param point <code>double[]</code>: The point to evaluate at.
+     * @return <code>double</code>: The resulting value, or <code>NaN</code> if
+     *         there are not enough provided arguments or the coefficients of this
+     *         <code>TensorFunction</code> instance are not real.
+     */
+    final double derivativeAt(int mode, double[] point) {
+
+        int[] dimensions = coeffs.getDimensions();
+
+        double[][] p = parts();
+        if (point.length < dimensions.length || p[1] != null) {
+
+            return Double.NaN;
+        }
+
+        if (mode >= dimensions.length || dimensions[mode] < 2) {
+
+            return 0.0;
+        }
+
+        int[] orders = new int[mode + 1];
+        orders[mode] = 1;
+        return partialReal(p[0], dimensions, orders, point);
+    }
+
+    /**
+     * Calculates a mixed partial derivative of this <code>TensorFunction</code>
+     * instance at a point, without constructing any derivative functions. The
+     * falling factorial weights of the derivative are folded into a single
+     * weighted Horner pass over the coefficients, so the cost is that of one
+     * evaluation regardless of the order of the derivative.
+     *
+     * @param orders <code>int[]</code>: The order of the derivative with respect
+     *               to each argument. Arguments beyond the length of the list are
+     *               not differentiated.
+     * @param point  <code>double...</code>: The point to evaluate at.
+     * @return <code>MatNumber</code>: The resulting value, or <code>null</code> if
+     *         an order is negative or there are not enough provided arguments.
+     */
+    public final MatNumber partialAt(int[] orders, double... point) {
+
+        int[] dimensions = coeffs.getDimensions();
+        int length = dimensions.length;
+
+        if (point.length < length) {
+
+            return null;
+        }
+
+        for (int mode = 0; mode < orders.length; mode++) {
+
+            if (orders[mode] < 0) {
+
+                return null;
+            }
+
+            // Differentiating a constant mode, or beyond the degree of a mode, gives 0.
+            if (orders[mode] > 0 && (mode >= length || orders[mode] >= dimensions[mode])) {
+
+                return MatNumber.ZERO;
+            }
+        }
+
+        double[][] p = parts();
+        double re = partialReal(p[0], dimensions, orders, point);
+        if (p[1] == null) {
+
+            return new Real(re);
+        }
+
+        return new Complex(re, partialReal(p[1], dimensions, orders, point));
+    }
+
+    /**
+     * Calculates a mixed partial derivative of a real coefficient tensor at a
+     * point by applying a weighted Horner's rule along one mode at a time.
+     *
+     * @param coeffs     <code>double[]</code>: The real coefficients to evaluate.
+     * @param dimensions <code>int[]</code>: The dimensions of the coefficients.
+     * @param orders     <code>int[]</code>: The order of the derivative with
+     *                   respect to each argument.
+     * @param point      <code>double[]</code>: The point to evaluate at.
+     * @return <code>double</code>: The resulting value.
+     */
+    private static double partialReal(double[] coeffs, int[] dimensions, int[] orders, double[] point) {
+
+        if (coeffs.length == 0) {
+
+            return 0.0;
+        }
+
+        double[] data = coeffs;
+        int size = coeffs.length;
+
+        for (int mode = 0; mode < dimensions.length; mode++) {
+
+            int n = dimensions[mode];
+            int k = mode < orders.length ? orders[mode] : 0;
+            int strands = size / n;
+            double arg = point[mode];
+
+            // i!/(i - k)!, the factor brought down from x^i by k derivatives.
+            double[] weights = new double[n];
+            for (int i = k; i < n; i++) {
+
+                double w = 1.0;
+                for (int j = 0; j < k; j++) {
+
+                    w *= i - j;
+                }
+                weights[i] = w;
+            }
+
+            double[] newData = new double[strands];
+            for (int s = 0, start = 0; s < strands; s++, start += n) {
+
+                double sum = 0.0;
+                for (int i = n - 1; i >= k; i--) {
+
+                    sum = sum * arg + weights[i] * data[start + i];
+                }
+                newData[s] = sum;
+            }
+
+            data = newData;
+            size = strands;
+        }
+
+        return data[0];
+    }
+
+    /**
+     * Generates a tensor of exponential terms for a given set of arguments.
+     * 
+     * @param args       <code>Vector</code>: The arguments to apply.
+     * @param dimensions <code>int[]</code>: The dimensions of the tensor to fill.
+     * @return <code>Tensor</code>: The calcalted tensor.
+     */
+    public static final Tensor param(Vector args, int[] dimensions) {
+
+        int size = Tensor.product(dimensions);
+        MatNumber[] vals = new MatNumber[size];
+
+        expIterate(0, MatNumber.ONE, args, 0, 1, dimensions, vals);
+        return new Tensor(dimensions, vals);
+    }
+
+    /**
+     * Iterates along each dimension of a tensor to calculate the exponents from a
+     * set of arguments.
+     * 
+     * @param mode        <code>int</code>: The current mode.
+     * @param coefficient <code>MatNumber</code>: The current coefficient.
+     * @param args        <code>Vector</code>: The arguments to apply.
+     * @param index       <code>int</code>: The current index in the coefficient
+     *                    array.
+     * @param indCoeff    <int</code>: The index coefficient for the current
+     *                    mode.
+     * @param dimensions  <int[]</code>: The dimensions to iterate over.
+     * @param coeffs      <code>MatNumber[]</code>: The coefficient array to fill.
+     */
+    private static void expIterate(int mode, MatNumber coeff, Vector args, int index, int indCoeff, int[] dimensions,
+            MatNumber[] coeffs) {
+
+        if (mode >= dimensions.length) {
+
+            coeffs[index] = coeff;
+            return;
+        }
+
+        MatNumber pow = args.get(mode);
+        int length = dimensions[mode];
+
+        for (int i = 0; i < length; i++) {
+
+            expIterate(mode + 1, coeff, args, index + i * indCoeff, indCoeff * length, dimensions, coeffs);
+            coeff = coeff.multiply(pow);
+        }
+    }
+
+    /**
+     * Evaluates this <code>TensorFunction</code> instance at every point of a
+     * tensor-product grid. Rather than applying each grid point separately, the
+     * coefficient tensor is contracted one mode at a time against the Vandermonde
+     * matrix of that mode's axis, so the cost grows with the sum of the axis
+     * lengths rather than their product.
+     *
+     * @param axes <code>double[]...</code>: The grid values along each argument.
+     * @return <code>Tensor</code>: The calculated values, where the value at index
+     *         <code>[i0, i1, ... , in]</code> is the value of this
+     *         <code>TensorFunction</code> instance at
+     *         <code>(axes[0][i0], axes[1][i1], ... , axes[n][in])</code>.
+     */
+    public final Tensor evaluateGrid(double[]... axes) {
+
+        return evaluateGrid(false, axes);
+    }
+
+    /**
+     * Evaluates this <code>TensorFunction</code> instance at every point of a
+     * tensor-product grid, optionally contracting the strands of each mode in
+     * parallel.
+     *
+     * @param parallel <code>boolean</code>: Whether or not each mode product
+     *                 should be calculated in parallel.
+     * @param axes     <code>double[]...</code>: The grid values along each
+     *                 argument.
+     * @return <code>Tensor</code>: The calculated values, where the value at index
+     *         <code>[i0, i1, ... , in]</code> is the value of this
+     *         <code>TensorFunction</code> instance at
+     *         <code>(axes[0][i0], axes[1][i1], ... , axes[n][in])</code>.
+     */
+    public final Tensor evaluateGrid(boolean parallel, double[]... axes) {
+
+        int length = getNumArgs();
+
+        // If there are not enough provided axes, return null.
+        if (axes.length < length) {
+
+            return null;
+        }
+
+        // Additional axes are arguments of degree 0.
+        Tensor t = coeffs;
+        if (axes.length > length) {
+
+            int[] nextDims = new int[axes.length - length];
+            Arrays.fill(nextDims, 1);
+            t = t.expand(nextDims);
+        }
+
+        // Contract the modes which shrink the tensor the most first, so that later
+        // mode products act on as little data as possible.
+        final Tensor expanded = t;
+        Integer[] order = new Integer[axes.length];
+        for (int i = 0; i < order.length; i++) {
+
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare((long) axes[a].length * expanded.getDimension(b),
+                (long) axes[b].length * expanded.getDimension(a)));
+
+        for (int mode : order) {
+
+            Matrix V = vandermondeMat(axes[mode], t.getDimension(mode) - 1);
+            t = Tensor.modeProduct(V, t, mode, parallel);
+        }
+
+        return t;
+    }
+
+    /**
+     * Generates a Vandermonde matrix which, when applied through matrix
+     * multiplication, evaluates an nth degree polynomial at a set of points.
+     *
+     * @param points <code>double[]</code>: The points to evaluate at.
+     * @param n      <code>int</code>: The degree of the polynomial.
+     * @return <code>Matrix</code>: The calculated matrix.
+     */
+    public static final Matrix vandermondeMat(double[] points, int n) {
+
+        int rows = points.length;
+
+        // Assume 1 more column than degrees.
+        int cols = n + 1;
+
+        double[] data = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+
+            double pow = 1.0;
+            for (int j = 0; j < cols; j++) {
+
+                data[i * cols + j] = pow;
+                pow *= points[i];
+            }
+        }
+
+        return new Matrix(rows, cols, data);
+    }
+
+    /**
+     * Evaluates this <code>TensorFunction</code> instance at every combination of
+     * roots of unity, where argument <code>m</code> ranges over the
+     * <code>n[m]</code>th roots of unity. This is the (unscaled) inverse discrete
+     * Fourier transform of the coefficient tensor, and is calculated with a fast
+     * Fourier transform along each mode.
+     *
+     * @param n <code>int...</code>: The number of roots of unity along each
+     *          argument.
+     * @return <code>Tensor</code>: The calculated values, where the value at index
+     *         <code>[k0, k1, ... , km]</code> is the value of this
+     *         <code>TensorFunction</code> instance at
+     *         <code>(w0^k0, w1^k1, ... , wm^km)</code> with
+     *         <code>wm = e^(2*pi*i/n[m])</code>.
+     */
+    public final Tensor evaluateOnUnitCircle(int... n) {
+
+        int length = getNumArgs();
+
+        // If there are not enough provided lengths, return null.
+        if (n.length < length) {
+
+            return null;
+        }
+
+        // Additional lengths are arguments of degree 0.
+        Tensor t = coeffs;
+        if (n.length > length) {
+
+            int[] nextDims = new int[n.length - length];
+            Arrays.fill(nextDims, 1);
+            t = t.expand(nextDims);
+        }
+
+        for (int mode = 0; mode < n.length; mode++) {
+
+            t = t.dft(mode, n[mode], true);
+            if (t == null) {
+
+                return null;
+            }
+        }
+
+        return t;
+    }
+
+    /**
+     * Computes the sum of this <code>TensorFunction</code> instance and another.
+     * 
+     * @param function <code>TensorFunction</code>: The function to add.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction add(TensorFunction function) {
+
+        Tensor t = coeffs.add(function.coeffs);
+        return new TensorFunction(t);
+    }
+
+    /**
+     * Computes the difference between this <code>TensorFunction</code> instance and
+     * another.
+     * 
+     * @param function <code>TensorFunction</code>: The function to subtract.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction subtract(TensorFunction function) {
+
+        Tensor t = coeffs.subtract(function.coeffs);
+        return new TensorFunction(t);
+    }
+
+    /**
+     * Computes the product between this <code>TensorFunction</code> instance and
+     * another.
+     * 
+     * @param function <code>TensorFunction</code>: The function to multiply by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    @Override
+    public final TensorFunction multiply(TensorFunction function) {
+
+        return multiply(function, MatContext.getTruncation());
+    }
+
+    /**
+     * Computes the product between this <code>TensorFunction</code> instance and
+     * another, keeping only the terms within a truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to multiply by.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction multiply(TensorFunction function, Truncation truncation) {
+
+        Tensor p = multiply(this.coeffs, function.coeffs, truncation);
+        return new TensorFunction(p);
+    }
+
+    /**
+     * Removes the terms of this <code>TensorFunction</code> instance beyond a
+     * truncation.
+     * 
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The truncated function, which is this
+     *         instance if every term is already kept.
+     */
+    public final TensorFunction truncate(Truncation truncation) {
+
+        int[] dims = coeffs.getDimensions();
+
+        int degree = 0;
+        for (int dim : dims) {
+
+            degree += dim - 1;
+        }
+
+        int[] newDims = truncation.limit(dims);
+        if (Arrays.equals(dims, newDims) && degree <= truncation.getTotal()) {
+
+            return this;
+        }
+
+        int total = truncation.getTotal();
+        Jet jet = jet(coeffs, newDims, total);
+
+        double[] re = new double[Tensor.product(newDims)];
+        double[] im = jet.im() == null ? null : new double[re.length];
+        for (int k = 0; k < jet.indices().length; k++) {
+
+            re[jet.indices()[k]] = jet.re()[k];
+            if (im != null) {
+
+                im[jet.indices()[k]] = jet.im()[k];
+            }
+        }
+
+        return new TensorFunction(toTensor(newDims, re, im));
+    }
+
+    /**
+     * Computes the product between this <code>TensorFunction</code> instance and a
+     * scalar.
+     * 
+     * @param scalar <code>MatNumber</code>: The scalar to multiply by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    @Override
+    public final TensorFunction multiply(MatNumber scalar) {
+
+        return new TensorFunction(coeffs.multiply(scalar));
+    }
+
+    /**
+     * Computes the product between this <code>TensorFunction</code> instance and a
+     * scalar.
+     * 
+     * @param scalar <code>double</code>: The scalar to multiply by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    @Override
+    public final TensorFunction multiply(double scalar) {
+
+        return new TensorFunction(coeffs.multiply(scalar));
+    }
+
+    /**
+     * Computes the polynomial product between two tensors.
+     * 
+     * @param t1 <code>Tensor</code>: The first tensor to multiply.
+     * @param t2 <code>Tensor</code>: The second tensor to multiply.
+     * @return <code>Tensor</code>: The calculated tensor.
+     */
+    private static Tensor multiply(Tensor t1, Tensor t2) {
+
+        int[] newDimensions = productDimensions(t1, t2);
+
+        int newSize = Tensor.product(newDimensions);
+        Terms first = terms(t1, newDimensions);
+        Terms second = terms(t2, newDimensions);
+
+        double[] re = new double[newSize];
+        double[] im = first.im() == null && second.im() == null ? null : new double[newSize];
+        multiplyInto(first, second, re, im);
+
+        return toTensor(newDimensions, re, im);
+    }
+
+    /**
+     * Calculates the dimensions of the polynomial product between two tensors.
+     * 
+     * @param t1 <code>Tensor</code>: The first tensor to multiply.
+     * @param t2 <code>Tensor</code>: The second tensor to multiply.
+     * @return <code>int[]</code>: The calculated dimensions.
+     */
+    private static int[] productDimensions(Tensor t1, Tensor t2) {
+
+        int[] t1Dims = t1.getDimensions();
+        int[] t2Dims = t2.getDimensions();
+
+        // The new tensor should start as a constant in all dimensions.
+        int[] newDimensions = new int[Math.max(t1Dims.length, t2Dims.length)];
+        Arrays.fill(newDimensions, 1);
+
+        // Add the degrees of the first tensor.
+        for (int i = 0; i < t1Dims.length; i++) {
+
+            newDimensions[i] += t1Dims[i] - 1;
+        }
+
+        // Add the degrees of the second tensor.
+        for (int i = 0; i < t2Dims.length; i++) {
+
+            newDimensions[i] += t2Dims[i] - 1;
+        }
+
+        return newDimensions;
+    }
+
+    /**
+     * Computes the polynomial product between two tensors, keeping only the terms
+     * within a truncation. Terms of either tensor beyond the truncation are never
+     * visited, and pairs of terms whose product lies beyond it are never formed.
+     * 
+     * @param t1         <code>Tensor</code>: The first tensor to multiply.
+     * @param t2         <code>Tensor</code>: The second tensor to multiply.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>Tensor</code>: The calculated tensor.
+     */
+    private static Tensor multiply(Tensor t1, Tensor t2, Truncation truncation) {
+
+        if (truncation.isNone()) {
+
+            return multiply(t1, t2);
+        }
+
+        int[] newDimensions = truncation.limit(productDimensions(t1, t2));
+        int total = truncation.getTotal();
+
+        Jet first = jet(t1, newDimensions, total);
+        Jet second = jet(t2, newDimensions, total);
+
+        int newSize = Tensor.product(newDimensions);
+        double[] re = new double[newSize];
+        double[] im = first.im() == null && second.im() == null ? null : new double[newSize];
+        multiplyJets(first, second, newDimensions, total, re, im);
+
+        return toTensor(newDimensions, re, im);
+    }
+
+    /**
+     * Computes a weighted sum of polynomial products between pairs of functions,
+     * keeping only the terms within a truncation. Every product is
+     * accumulated directly into one result sized for the largest of them, so no
+     * product is formed on its own and no partial sum is resized.
+     *
+     * @param first  <code>TensorFunction[]</code>: The first function of each
+     *               pair.
+     * @param second <code>TensorFunction[]</code>: The second function of each
+     *               pair.
+     * @param scales     <code>double[]</code>: The factor each product is
+     *                   multiplied by.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    static TensorFunction sumProducts(TensorFunction[] first, TensorFunction[] second, double[] scales,
+            Truncation truncation) {
+
+        int[] kept = new int[first.length];
+        int count = 0;
+        int[] newDimensions = new int[0];
+        boolean real = true;
+        for (int k = 0; k < first.length; k++) {
+
+            if (first[k] == ZERO || second[k] == ZERO || scales[k] == 0.0) {
+
+                continue;
+            }
+
+            kept[count++] = k;
+            real &= first[k].parts()[1] == null && second[k].parts()[1] == null;
+
+            // The result is large enough to hold the product of every pair.
+            int[] dims = productDimensions(first[k].coeffs, second[k].coeffs);
+            if (dims.length > newDimensions.length) {
+
+                int length = newDimensions.length;
+                newDimensions = Arrays.copyOf(newDimensions, dims.length);
+                Arrays.fill(newDimensions, length, dims.length, 1);
+            }
+
+            for (int d = 0; d < dims.length; d++) {
+
+                newDimensions[d] = Math.max(newDimensions[d], dims[d]);
+            }
+        }
+
+        if (count == 0) {
+
+            return ZERO;
+        }
+
+        boolean truncated = !truncation.isNone();
+        int total = truncation.getTotal();
+        if (truncated) {
+
+            newDimensions = truncation.limit(newDimensions);
+        }
+
+        int newSize = Tensor.product(newDimensions);
+        double[] re = new double[newSize];
+        double[] im = real ? null : new double[newSize];
+
+        for (int c = 0; c < count; c++) {
+
+            int k = kept[c];
+            Tensor t1 = first[k].coeffs;
+            Tensor t2 = second[k].coeffs;
+            double scale = scales[k];
+
+            if (truncated) {
+
+                Jet a = jet(t1, newDimensions, total);
+                Jet b = jet(t2, newDimensions, total);
+                if (scale != 1.0) {
+
+                    a = new Jet(a.indices(), a.degrees(), a.exponents(), times(a.re(), scale), times(a.im(), scale));
+                }
+
+                multiplyJets(a, b, newDimensions, total, re, a.im() == null && b.im() == null ? null : im);
+            } else {
+
+                Terms a = terms(t1, newDimensions);
+                Terms b = terms(t2, newDimensions);
+                if (scale != 1.0) {
+
+                    a = new Terms(a.indices(), times(a.re(), scale), times(a.im(), scale), a.length());
+                }
+
+                multiplyInto(a, b, re, a.im() == null && b.im() == null ? null : im);
+            }
+        }
+
+        return new TensorFunction(toTensor(newDimensions, re, im));
+    }
+
+    /**
+     * Multiplies every value in a list by a factor.
+     *
+     * @param values <code>double[]</code>: The values to multiply, or
+     *               <code>null</code>.
+     * @param factor <code>double</code>: The factor to multiply by.
+     * @return <code>double[]</code>: The multiplied values, or <code>null</code>
+     *         if no values are provided.
+     */
+    private static double[] times(double[] values, double factor) {
+
+        if (values == null) {
+
+            return null;
+        }
+
+        double[] result = new double[values.length];
+        for (int k = 0; k < values.length; k++) {
+
+            result[k] = factor * values[k];
+        }
+
+        return result;
+    }
+
+    /**
+     * <code>Jet</code>: A record representing the non-zero coefficients of a
+     * tensor within a truncation, with their indices mapped into the layout of the
+     * truncated result and sorted by total degree.
+     * 
+     * @param indices   <code>int[]</code>: The indices of the terms.
+     * @param degrees   <code>int[]</code>: The total degrees of the terms, in
+     *                  ascending order.
+     * @param exponents <code>int[]</code>: The exponents of the terms in each
+     *                  mode of the result, one term after another.
+     * @param re        <code>double[]</code>: The real components of the terms.
+     * @param im        <code>double[]</code>: The imaginary components of the
+     *                  terms, or <code>null</code> if every term is real.
+     */
+    private record Jet(int[] indices, int[] degrees, int[] exponents, double[] re, double[] im) {
+    }
+
+    /**
+     * Collects the non-zero coefficients of a tensor within a truncation.
+     * 
+     * @param t       <code>Tensor</code>: The tensor to collect from.
+     * @param newDims <code>int[]</code>: The dimensions of the truncated result,
+     *                beyond which terms are dropped.
+     * @param total   <code>int</code>: The maximum total degree of a kept term.
+     * @return <code>Jet</code>: The collected terms.
+     */
+    private static Jet jet(Tensor t, int[] newDims, int total) {
+
+        int n = t.getNumDimensions();
+        int m = newDims.length;
+
+        int[] strides = new int[m];
+        int factor = 1;
+        for (int d = 0; d < m; d++) {
+
+            strides[d] = factor;
+            factor *= newDims[d];
+        }
+
+        int size = t.size();
+        long[] keys = new long[size];
+        int[] indices = new int[size];
+        int[] exponents = new int[size * m];
+        double[] re = new double[size];
+        double[] im = new double[size];
+        boolean real = true;
+        int count = 0;
+
+        int[] e = new int[n];
+        for (int i = 0; i < size; i++) {
+
+            MatNumber coeff = t.get(i);
+            if (!coeff.equals(MatNumber.ZERO)) {
+
+                int degree = 0;
+                int index = 0;
+                boolean kept = true;
+                for (int d = 0; d < n && kept; d++) {
+
+                    degree += e[d];
+                    index += e[d] * strides[d];
+                    kept = e[d] < newDims[d];
+                }
+
+                if (kept && degree <= total) {
+
+                    for (int d = 0; d < n; d++) {
+
+                        exponents[count * m + d] = e[d];
+                    }
+
+                    keys[count] = (long) degree << 32 | count;
+                    indices[count] = index;
+                    re[count] = coeff.real();
+                    im[count] = coeff.imag();
+                    real &= coeff.imag() == 0.0;
+                    count++;
+                }
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < n; d++) {
+
+                if (++e[d] < t.getDimension(d)) {
+
+                    break;
+                }
+
+                e[d] = 0;
+            }
+        }
+
+        Arrays.sort(keys, 0, count);
+
+        int[] sortedIndices = new int[count];
+        int[] sortedDegrees = new int[count];
+        int[] sortedExponents = new int[count * m];
+        double[] sortedRe = new double[count];
+        double[] sortedIm = real ? null : new double[count];
+        for (int k = 0; k < count; k++) {
+
+            int old = (int) keys[k];
+            sortedIndices[k] = indices[old];
+            sortedDegrees[k] = (int) (keys[k] >>> 32);
+            System.arraycopy(exponents, old * m, sortedExponents, k * m, m);
+            sortedRe[k] = re[old];
+            if (!real) {
+
+                sortedIm[k] = im[old];
+            }
+        }
+
+        return new Jet(sortedIndices, sortedDegrees, sortedExponents, sortedRe, sortedIm);
+    }
+
+    /**
+     * Accumulates the truncated polynomial product between two sets of terms. For
+     * each term of the first set, only the prefix of the second set whose degrees
+     * keep the product within the total cap is visited, and the per-mode caps are
+     * only checked in the modes where two kept terms could exceed them.
+     * 
+     * @param first   <code>Jet</code>: The first terms to multiply.
+     * @param second  <code>Jet</code>: The second terms to multiply.
+     * @param newDims <code>int[]</code>: The dimensions of the truncated result.
+     * @param total   <code>int</code>: The maximum total degree of a kept term.
+     * @param re      <code>double[]</code>: The real components to accumulate into.
+     * @param im      <code>double[]</code>: The imaginary components to accumulate
+     *                into, or <code>null</code> if both sets of terms are real.
+     */
+    private static void multiplyJets(Jet first, Jet second, int[] newDims, int total, double[] re, double[] im) {
+
+        int n1 = first.indices().length;
+        int n2 = second.indices().length;
+        if (n1 == 0 || n2 == 0) {
+
+            return;
+        }
+
+        int m = newDims.length;
+        int[] e1 = first.exponents();
+        int[] e2 = second.exponents();
+
+        // Find the modes in which a pair of kept terms may exceed the cap.
+        int[] max1 = new int[m];
+        int[] max2 = new int[m];
+        for (int d = 0; d < m; d++) {
+
+            for (int p = 0; p < n1; p++) {
+
+                max1[d] = Math.max(max1[d], e1[p * m + d]);
+            }
+
+            for (int q = 0; q < n2; q++) {
+
+                max2[d] = Math.max(max2[d], e2[q * m + d]);
+            }
+        }
+
+        int[] checked = new int[m];
+        int numChecked = 0;
+        for (int d = 0; d < m; d++) {
+
+            if (max1[d] + max2[d] >= newDims[d]) {
+
+                checked[numChecked++] = d;
+            }
+        }
+
+        int[] idx1 = first.indices();
+        int[] idx2 = second.indices();
+        int[] deg1 = first.degrees();
+        int[] deg2 = second.degrees();
+
+        double[] re1 = first.re(), im1 = first.im();
+        double[] re2 = second.re(), im2 = second.im();
+
+        for (int p = 0; p < n1; p++) {
+
+            int remaining = total - deg1[p];
+            int end = remaining >= deg2[n2 - 1] ? n2 : lowerBound(deg2, remaining + 1);
+
+            double ar = re1[p];
+            double ai = im1 == null ? 0.0 : im1[p];
+
+            pairs: for (int q = 0; q < end; q++) {
+
+                for (int c = 0; c < numChecked; c++) {
+
+                    int d = checked[c];
+                    if (e1[p * m + d] + e2[q * m + d] >= newDims[d]) {
+
+                        continue pairs;
+                    }
+                }
+
+                int k = idx1[p] + idx2[q];
+                double br = re2[q];
+                if (im == null) {
+
+                    re[k] += ar * br;
+                } else {
+
+                    double bi = im2 == null ? 0.0 : im2[q];
+                    re[k] += ar * br - ai * bi;
+                    im[k] += ar * bi + ai * br;
+                }
+            }
+        }
+    }
+
+    /**
+     * <code>long</code>: The number of coefficient pairs from which a polynomial
+     * product is accumulated in parallel.
+     */
+    private static final long PARALLEL_PAIRS = 1L << 20;
+
+    /**
+     * <code>Terms</code>: A record representing the non-zero coefficients of a
+     * tensor, with their indices mapped into the layout of a larger tensor. Since
+     * the mapping is linear, the index of a product of two terms is the sum of
+     * their indices, which turns a polynomial product into the convolution of two
+     * sequences (Kronecker substitution).
+     * 
+     * @param indices <code>int[]</code>: The indices of the terms.
+     * @param re      <code>double[]</code>: The real components of the terms.
+     * @param im      <code>double[]</code>: The imaginary components of the terms,
+     *                or <code>null</code> if every term is real.
+     * @param length  <code>int</code>: The length of the sequence holding the
+     *                terms.
+     */
+    private record Terms(int[] indices, double[] re, double[] im, int length) {
+
+        /**
+         * Spreads a component of the terms into a dense sequence.
+         * 
+         * @param values <code>double[]</code>: The component to spread.
+         * @return <code>double[]</code>: The dense sequence.
+         */
+        private double[] dense(double[] values) {
+
+            double[] sequence = new double[length];
+            for (int k = 0; k < indices.length; k++) {
+
+                sequence[indices[k]] = values[k];
+            }
+
+            return sequence;
+        }
+
+        /**
+         * Sorts the terms by index.
+         * 
+         * @return <code>Terms</code>: The sorted terms.
+         */
+        private Terms sorted() {
+
+            int n = indices.length;
+            long[] keys = new long[n];
+            for (int k = 0; k < n; k++) {
+
+                keys[k] = (long) indices[k] << 32 | k;
+            }
+            Arrays.sort(keys);
+
+            int[] newIndices = new int[n];
+            double[] newRe = new double[n];
+            double[] newIm = im == null ? null : new double[n];
+            for (int k = 0; k < n; k++) {
+
+                int old = (int) keys[k];
+                newIndices[k] = indices[old];
+                newRe[k] = re[old];
+                if (im != null) {
+
+                    newIm[k] = im[old];
+                }
+            }
+
+            return new Terms(newIndices, newRe, newIm, length);
+        }
+    }
+
+    /**
+     * Collects the non-zero coefficients of a tensor.
+     * 
+     * @param t       <code>Tensor</code>: The tensor to collect from.
+     * @param newDims <code>int[]</code>: The dimensions of the layout to map the
+     *                indices into.
+     * @return <code>Terms</code>: The collected terms.
+     */
+    private static Terms terms(Tensor t, int[] newDims) {
+
+        int size = t.size();
+        int[] indices = new int[size];
+        double[] re = new double[size];
+        double[] im = new double[size];
+        int[] count = { 0 };
+        int[] length = { 0 };
+        boolean[] real = { true };
+
+        multiplyIterateFirst(0, t, 0, 1, newDims, 0, 1, (coeff, index) -> {
+
+            indices[count[0]] = index;
+            re[count[0]] = coeff.real();
+            im[count[0]] = coeff.imag();
+            real[0] &= coeff.imag() == 0.0;
+            length[0] = Math.max(length[0], index + 1);
+            count[0]++;
+        });
+
+        int n = count[0];
+        return new Terms(Arrays.copyOf(indices, n), Arrays.copyOf(re, n), real[0] ? null : Arrays.copyOf(im, n),
+                length[0]);
+    }
+
+    /**
+     * Collects the non-zero coefficients of a tensor held as dense components.
+     * 
+     * @param re      <code>double[]</code>: The real components of the tensor.
+     * @param im      <code>double[]</code>: The imaginary components of the
+     *                tensor, or <code>null</code> if every coefficient is real.
+     * @param dims    <code>int[]</code>: The dimensions of the tensor.
+     * @param newDims <code>int[]</code>: The dimensions of the layout to map the
+     *                indices into.
+     * @return <code>Terms</code>: The collected terms.
+     */
+    private static Terms terms(double[] re, double[] im, int[] dims, int[] newDims) {
+
+        int size = 0;
+        for (int k = 0; k < re.length; k++) {
+
+            if (re[k] != 0.0 || im != null && im[k] != 0.0) {
+
+                size++;
+            }
+        }
+
+        int n = dims.length;
+        int[] indices = new int[size];
+        double[] termRe = new double[size];
+        double[] termIm = im == null ? null : new double[size];
+        int count = 0;
+
+        int[] e = new int[n];
+        int index = 0;
+        for (int k = 0; k < re.length; k++) {
+
+            if (re[k] != 0.0 || im != null && im[k] != 0.0) {
+
+                indices[count] = index;
+                termRe[count] = re[k];
+                if (im != null) {
+
+                    termIm[count] = im[k];
+                }
+                count++;
+            }
+
+            // Advance to the next multi-dimensional index.
+            int factor = 1;
+            for (int d = 0; d < n; d++) {
+
+                if (++e[d] < dims[d]) {
+
+                    index += factor;
+                    break;
+                }
+
+                index -= (e[d] - 1) * factor;
+                e[d] = 0;
+                factor *= newDims[d];
+            }
+        }
+
+        return new Terms(indices, termRe, termIm, size == 0 ? 0 : indices[size - 1] + 1);
+    }
+
+    /**
+     * Accumulates the polynomial product between two sets of terms. Products whose
+     * terms are sparse, or whose coefficients span too wide a range for the fast
+     * algorithms to preserve, are formed term by term; otherwise, the terms are
+     * spread into dense sequences and convolved with the cheapest algorithm, using
+     * three real convolutions for a complex product.
+     * 
+     * @param first  <code>Terms</code>: The first terms to multiply.
+     * @param second <code>Terms</code>: The second terms to multiply.
+     * @param re     <code>double[]</code>: The real components to accumulate into.
+     * @param im     <code>double[]</code>: The imaginary components to accumulate
+     *               into, or <code>null</code> if both sets of terms are real.
+     */
+    private static void multiplyInto(Terms first, Terms second, double[] re, double[] im) {
+
+        int n1 = first.indices().length;
+        int n2 = second.indices().length;
+        if (n1 == 0 || n2 == 0) {
+
+            return;
+        }
+
+        double[] re1 = first.re(), im1 = first.im();
+        double[] re2 = second.re(), im2 = second.im();
+
+        boolean dense = (double) n1 * n2 > Convolution.cost(first.length(), second.length())
+                && Convolution.dynamicRange(re1, im1 == null ? re1 : im1) <= Convolution.MAX_DYNAMIC_RANGE
+                && Convolution.dynamicRange(re2, im2 == null ? re2 : im2) <= Convolution.MAX_DYNAMIC_RANGE;
+
+        if (!dense) {
+
+            Terms sorted = second.sorted();
+            int length = first.length() + second.length() - 1;
+
+            if ((long) n1 * n2 < PARALLEL_PAIRS) {
+
+                multiplyRange(first, sorted, re, im, 0, length);
+                return;
+            }
+
+            // Each part owns a slice of the output, so no two parts write the same
+            // coefficient and every coefficient is summed in the same order.
+            int parts = Math.min(length, 4 * ForkJoinPool.getCommonPoolParallelism());
+            int chunk = (length + parts - 1) / parts;
+            IntStream.range(0, parts).parallel().forEach(part -> multiplyRange(first, sorted, re, im,
+                    part * chunk, Math.min(length, (part + 1) * chunk)));
+
+            return;
+        }
+
+        double[] ar = first.dense(re1);
+        double[] br = second.dense(re2);
+
+        if (im == null) {
+
+            addInto(re, Convolution.convolve(ar, br), 1.0);
+            return;
+        }
+
+        if (im1 == null) {
+
+            addInto(re, Convolution.convolve(ar, br), 1.0);
+            addInto(im, Convolution.convolve(ar, second.dense(im2)), 1.0);
+            return;
+        }
+
+        if (im2 == null) {
+
+            addInto(re, Convolution.convolve(ar, br), 1.0);
+            addInto(im, Convolution.convolve(first.dense(im1), br), 1.0);
+            return;
+        }
+
+        // (ar + i ai)(br + i bi) = p1 - p2 + i(p3 - p1 - p2)
+        double[] ai = first.dense(im1);
+        double[] bi = second.dense(im2);
+
+        double[] p1 = Convolution.convolve(ar, br);
+        double[] p2 = Convolution.convolve(ai, bi);
+
+        for (int k = 0; k < ar.length; k++) {
+
+            ai[k] += ar[k];
+        }
+
+        for (int k = 0; k < br.length; k++) {
+
+            bi[k] += br[k];
+        }
+
+        double[] p3 = Convolution.convolve(ai, bi);
+
+        addInto(re, p1, 1.0);
+        addInto(re, p2, -1.0);
+        addInto(im, p3, 1.0);
+        addInto(im, p1, -1.0);
+        addInto(im, p2, -1.0);
+    }
+
+    /**
+     * Accumulates the products between pairs of terms whose indices sum to within
+     * a range of the output.
+     * 
+     * @param first  <code>Terms</code>: The first terms to multiply.
+     * @param second <code>Terms</code>: The second terms to multiply, sorted by
+     *               index.
+     * @param re     <code>double[]</code>: The real components to accumulate into.
+     * @param im     <code>double[]</code>: The imaginary components to accumulate
+     *               into, or <code>null</code> if both sets of terms are real.
+     * @param lo     <code>int</code>: The first output index to accumulate.
+     * @param hi     <code>int</code>: The output index to stop before.
+     */
+    private static void multiplyRange(Terms first, Terms second, double[] re, double[] im, int lo, int hi) {
+
+        int[] idx1 = first.indices();
+        int[] idx2 = second.indices();
+        int n1 = idx1.length;
+        int n2 = idx2.length;
+
+        double[] re1 = first.re(), im1 = first.im();
+        double[] re2 = second.re(), im2 = second.im();
+
+        for (int p = 0; p < n1; p++) {
+
+            // Only search for the bounds when the range cuts through the products.
+            int base = idx1[p];
+            int from = lo - base <= idx2[0] ? 0 : lowerBound(idx2, lo - base);
+            int to = hi - base > idx2[n2 - 1] ? n2 : lowerBound(idx2, hi - base);
+
+            double ar = re1[p];
+            double ai = im1 == null ? 0.0 : im1[p];
+
+            if (im == null) {
+
+                for (int q = from; q < to; q++) {
+
+                    re[base + idx2[q]] += ar * re2[q];
+                }
+            } else {
+
+                for (int q = from; q < to; q++) {
+
+                    int k = base + idx2[q];
+                    double br = re2[q];
+                    double bi = im2 == null ? 0.0 : im2[q];
+
+                    re[k] += ar * br - ai * bi;
+                    im[k] += ar * bi + ai * br;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the first position in a sorted array whose value is at least a key.
+     * 
+     * @param sorted <code>int[]</code>: The sorted array to search.
+     * @param key    <code>int</code>: The key to search for.
+     * @return <code>int</code>: The found position, or the length of the array if
+     *         every value is less than the key.
+     */
+    private static int lowerBound(int[] sorted, int key) {
+
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+
+                low = mid + 1;
+            } else {
+
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Adds a multiple of a sequence to the start of another.
+     * 
+     * @param target   <code>double[]</code>: The sequence to add to.
+     * @param values   <code>double[]</code>: The sequence to add.
+     * @param multiple <code>double</code>: The multiple to add.
+     */
+    private static void addInto(double[] target, double[] values, double multiple) {
+
+        for (int k = 0; k < values.length; k++) {
+
+            target[k] += multiple * values[k];
+        }
+    }
+
+    /**
+     * Creates a tensor from the components of its coefficients.
+     * 
+     * @param dims <code>int[]</code>: The dimensions of the tensor.
+     * @param re   <code>double[]</code>: The real components.
+     * @param im   <code>double[]</code>: The imaginary components, or
+     *             <code>null</code> if every coefficient is real.
+     * @return <code>Tensor</code>: The created tensor.
+     */
+    private static Tensor toTensor(int[] dims, double[] re, double[] im) {
+
+        MatNumber[] data = new MatNumber[re.length];
+        for (int k = 0; k < re.length; k++) {
+
+            if (im == null || im[k] == 0.0) {
+
+                data[k] = re[k] == 0.0 ? MatNumber.ZERO : new Real(re[k]);
+            } else {
+
+                data[k] = new Complex(re[k], im[k]);
+            }
+        }
+
+        return new Tensor(dims, data);
+    }
+
+    /**
+     * <code>MultiplyConsumer</code>: A functional interface for consuming
+     * coefficients and indices in the first stage of polynomial multiplication.
+     */
+    @FunctionalInterface
+    private interface MultiplyConsumer {
+
+        /**
+         * Accepts a coefficient and index.
+         * 
+         * @param coeff <code>MatNumber</code>: The coefficient calculated in the first
+         *              stage.
+         * @param index <code>int</code>: The index offset calculated in the first
+         *              stage.
+         */
+        public void accept(MatNumber coeff, int index);
+    }
+
+    /**
+     * Iterates through the first tensor in polynomial multiplication.
+     * 
+     * @param mode        <code>int</code>: The current mode.
+     * @param first       <code>Tensor</code>: The first tensor.
+     * @param indexOld    <code>int</code>: The current index in the first tensor.
+     * @param indCoeffOld <code>int</code>: The index coefficient for the first
+     *                    tensor.
+     * @param newDims     <code>int[]</code>: The dimensions of the new tensor.
+     * @param indexNew    <code>int</code>: The current index in the new tensor.
+     * @param indCoeffNew <code>int</code>: The index coefficient for the new
+     *                    tensor.
+     * @param p           <code>MultiplyConsumer</code>: The consumer to apply at
+     *                    the end of
+     *                    iteration in the first tensor.
+     */
+    private static void multiplyIterateFirst(int mode, Tensor first, int indexOld, int indCoeffOld, int[] newDims,
+            int indexNew, int indCoeffNew, MultiplyConsumer p) {
+
+        if (mode >= first.getNumDimensions()) {
+
+            MatNumber coeff = first.get(indexOld);
+            if (!coeff.equals(MatNumber.ZERO)) {
+
+                p.accept(coeff, indexNew);
+            }
+
+            return;
+        }
+
+        int oldLength = first.getDimension(mode);
+        int newLength = newDims[mode];
+
+        for (int i = 0; i < oldLength; i++) {
+
+            multiplyIterateFirst(mode + 1, first, indexOld + i * indCoeffOld, indCoeffOld * oldLength, newDims,
+                    indexNew + i * indCoeffNew, indCoeffNew * newLength, p);
+        }
+    }
+
+    /**
+     * Calculates the nth power of this <code>TensorFunction</code> instance.
+     * Powers are remembered, so that a power whose predecessor has already been
+     * calculated costs a single multiplication. Otherwise, a function of only a
+     * few terms is expanded directly through the multinomial theorem, and any
+     * other function is raised through exponentiation by squaring.
+     * 
+     * @param n <code>int</code>: The exponent to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction pow(int n) {
+
+        return pow(n, MatContext.getTruncation());
+    }
+
+    /**
+     * Calculates the nth power of this <code>TensorFunction</code> instance,
+     * keeping only the terms within a truncation. Powers are remembered for each
+     * truncation separately.
+     * 
+     * @param n          <code>int</code>: The exponent to apply.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction pow(int n, Truncation truncation) {
+
+        if (n <= 0) {
+
+            if (n == 0) {
+
+                int[] dims = new int[getNumArgs()];
+                Arrays.fill(dims, 1);
+                return new TensorFunction(new Tensor(dims, 1));
+            }
+
+            return null;
+        }
+
+        if (n == 1) {
+
+            return truncate(truncation);
+        }
+
+        return (TensorFunction) derived().computeIfAbsent(new Derivation(POW, 0, n, truncation), _ -> {
+
+            // Climb one rung of the power ladder if the previous power is known.
+            Object prev = derived().get(new Derivation(POW, 0, n - 1, truncation));
+            if (prev != null) {
+
+                return ((TensorFunction) prev).multiply(this, truncation);
+            }
+
+            Tensor t = truncation.isNone() ? multinomial(coeffs, n) : null;
+            if (t != null) {
+
+                return new TensorFunction(t);
+            }
+
+            // Multiply together the squares which correspond to the bits of n. Each
+            // square is remembered by the function it squares.
+            TensorFunction result = null;
+            TensorFunction square = truncate(truncation);
+            for (int k = n; k > 0; k >>= 1) {
+
+                if ((k & 1) == 1) {
+
+                    result = result == null ? square : result.multiply(square, truncation);
+                }
+
+                if (k > 1) {
+
+                    square = square.square(truncation);
+                }
+            }
+
+            return result;
+        });
+    }
+
+    /**
+     * Calculates the square of this <code>TensorFunction</code> instance.
+     *
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    private TensorFunction square(Truncation truncation) {
+
+        return (TensorFunction) derived().computeIfAbsent(new Derivation(POW, 0, 2, truncation),
+                _ -> new TensorFunction(multiply(coeffs, coeffs, truncation)));
+    }
+
+    /**
+     * Calculates the nth power of a polynomial with few non-zero terms directly
+     * through the multinomial theorem, where each combination of term exponents
+     * <code>k1 + k2 + ... + km = n</code> contributes
+     * <code>n!/(k1!k2!...km!) * c1^k1 * c2^k2 * ... * cm^km</code>.
+     *
+     * @param t <code>Tensor</code>: The coefficient tensor to raise.
+     * @param n <code>int</code>: The exponent to apply.
+     * @return <code>Tensor</code>: The calculated tensor, or <code>null</code> if
+     *         there are more combinations of term exponents than coefficients in
+     *         the result, in which case repeated multiplication is cheaper.
+     */
+    private static Tensor multinomial(Tensor t, int n) {
+
+        int[] dims = t.getDimensions();
+
+        int[] newDims = new int[dims.length];
+        for (int i = 0; i < dims.length; i++) {
+
+            newDims[i] = n * (dims[i] - 1) + 1;
+        }
+
+        int terms = 0;
+        for (int i = 0; i < t.size(); i++) {
+
+            if (!t.get(i).equals(MatNumber.ZERO)) {
+
+                terms++;
+            }
+        }
+
+        // The number of combinations is (n + m - 1)!/(n!(m - 1)!).
+        double combinations = 1.0;
+        for (int j = 1; j < terms; j++) {
+
+            combinations *= (double) (n + j) / j;
+        }
+
+        int newSize = Tensor.product(newDims);
+        if (combinations > newSize) {
+
+            return null;
+        }
+
+        MatNumber[] termCoeffs = new MatNumber[terms];
+        int[] termIndices = new int[terms];
+
+        // Map the flat index of each non-zero term into the dimensions of the result.
+        int term = 0;
+        for (int i = 0; i < t.size(); i++) {
+
+            if (t.get(i).equals(MatNumber.ZERO)) {
+
+                continue;
+            }
+
+            int rem = i;
+            int index = 0;
+            int factor = 1;
+            for (int d = 0; d < dims.length; d++) {
+
+                index += (rem % dims[d]) * factor;
+                rem /= dims[d];
+                factor *= newDims[d];
+            }
+
+            termCoeffs[term] = t.get(i);
+            termIndices[term] = index;
+            term++;
+        }
+
+        MatNumber[] newData = new MatNumber[newSize];
+        Arrays.fill(newData, MatNumber.ZERO);
+
+        if (terms > 0) {
+
+            // The last term takes whatever exponent remains.
+            MatNumber[] lastPowers = new MatNumber[n + 1];
+            lastPowers[0] = MatNumber.ONE;
+            for (int k = 1; k <= n; k++) {
+
+                lastPowers[k] = lastPowers[k - 1].multiply(termCoeffs[terms - 1]);
+            }
+
+            multinomialIterate(0, n, MatNumber.ONE, 1.0, 0, termCoeffs, termIndices, lastPowers, newData);
+        }
+
+        return new Tensor(newDims, newData);
+    }
+
+    /**
+     * Iterates through each combination of term exponents in a multinomial
+     * expansion. The multinomial coefficient is kept apart from the powers of the
+     * term coefficients and built from binomial coefficients calculated exactly
+     * in integers, so integer inputs give exact integer results.
+     *
+     * @param term        <code>int</code>: The current term.
+     * @param remaining   <code>int</code>: The exponent remaining to be divided
+     *                    among the current and following terms.
+     * @param coeff       <code>MatNumber</code>: The product of the powers of the
+     *                    coefficients of the previous terms.
+     * @param count       <code>double</code>: The product of the binomial
+     *                    coefficients of the previous terms.
+     * @param index       <code>int</code>: The index accumulated from the previous
+     *                    terms.
+     * @param termCoeffs  <code>MatNumber[]</code>: The coefficient of each term.
+     * @param termIndices <code>int[]</code>: The index of each term in the result.
+     * @param lastPowers  <code>MatNumber[]</code>: The powers of the coefficient of
+     *                    the last term.
+     * @param data        <code>MatNumber[]</code>: The data array of the result.
+     */
+    private static void multinomialIterate(int term, int remaining, MatNumber coeff, double count, int index,
+            MatNumber[] termCoeffs, int[] termIndices, MatNumber[] lastPowers, MatNumber[] data) {
+
+        if (term == termCoeffs.length - 1) {
+
+            index += remaining * termIndices[term];
+            data[index] = data[index].add(coeff.multiply(lastPowers[remaining]).multiply(count));
+            return;
+        }
+
+        // coeff * c^k and count * C(remaining, k)
+        long exact = 1;
+        double binomial = 1.0;
+        for (int k = 0; k <= remaining; k++) {
+
+            multinomialIterate(term + 1, remaining - k, coeff, count * binomial, index + k * termIndices[term],
+                    termCoeffs, termIndices, lastPowers, data);
+
+            coeff = coeff.multiply(termCoeffs[term]);
+
+            // C(remaining, k + 1) = C(remaining, k) * (remaining - k)/(k + 1) divides
+            // exactly, so it is kept as an integer for as long as it fits in a long.
+            if (exact > 0 && exact <= Long.MAX_VALUE / Math.max(1, remaining - k)) {
+
+                exact = exact * (remaining - k) / (k + 1);
+                binomial = exact;
+            } else {
+
+                exact = 0;
+                binomial *= (double) (remaining - k) / (k + 1);
+            }
+        }
+    }
+
+    /**
+     * Computes the quotient between this <code>TensorFunction</code> instance and
+     * another, as a Taylor series through the larger of their total degrees. If
+     * the other function divides this one exactly, the quotient is exact.
+     * 
+     * @param function <code>TensorFunction</code>: The function to divide by.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the quotient has no Taylor series.
+     */
+    @Override
+    public final TensorFunction divide(TensorFunction function) {
+
+        return divide(function, MatContext.getTruncation());
+    }
+
+    /**
+     * Computes the quotient between this <code>TensorFunction</code> instance and
+     * another, as a Taylor series through the larger of their total degrees,
+     * keeping only the terms within a truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to divide by.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the quotient has no Taylor series.
+     */
+    public final TensorFunction divide(TensorFunction function, Truncation truncation) {
+
+        return divide(function, Math.max(totalDegree(), function.totalDegree()), truncation);
+    }
+
+    /**
+     * Computes the quotient between this <code>TensorFunction</code> instance and
+     * another, as a Taylor series through a given total degree. Any monomial
+     * factor <code>x^s</code> common to every term of the divisor is first
+     * cancelled against this function, so that <code>(x^3 + x^2)/x^2</code> is
+     * defined; the remaining divisor must then have a non-zero constant term, and
+     * is inverted by Newton iteration.
+     * 
+     * @param function <code>TensorFunction</code>: The function to divide by.
+     * @param degree   <code>int</code>: The maximum total degree of the quotient.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the degree is negative, the divisor is zero,
+     *         or the quotient has no Taylor series.
+     */
+    public final TensorFunction divide(TensorFunction function, int degree) {
+
+        return divide(function, degree, MatContext.getTruncation());
+    }
+
+    /**
+     * Computes the quotient between this <code>TensorFunction</code> instance and
+     * another, as a Taylor series through a given total degree, keeping only the
+     * terms within a truncation.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to divide by.
+     * @param degree     <code>int</code>: The maximum total degree of the
+     *                   quotient.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the degree is negative, the divisor is zero,
+     *         or the quotient has no Taylor series.
+     */
+    public final TensorFunction divide(TensorFunction function, int degree, Truncation truncation) {
+
+        if (degree < 0) {
+
+            return null;
+        }
+
+        int[] shift = function.lowestExponents();
+        if (shift == null) {
+
+            return null;
+        }
+
+        TensorFunction num = this;
+        TensorFunction denom = function;
+        if (Arrays.stream(shift).anyMatch(e -> e > 0)) {
+
+            int[] lowest = lowestExponents();
+            if (lowest == null) {
+
+                return ZERO;
+            }
+
+            // This function must contain the monomial factor for the quotient to be a
+            // power series.
+            for (int d = 0; d < shift.length; d++) {
+
+                if (shift[d] > (d < lowest.length ? lowest[d] : 0)) {
+
+                    return null;
+                }
+            }
+
+            num = divideMonomial(shift);
+            denom = function.divideMonomial(shift);
+        }
+
+        TensorFunction recip = recip(denom, degree + 1, truncation);
+        return recip == null ? null : num.multiply(recip, truncation.withTotal(degree));
+    }
+
+    /**
+     * Calculates the reciprocal of this <code>TensorFunction</code> instance
+     * within a truncation by Newton iteration, <code>g = g(2 - fg)</code>. Each
+     * step doubles the degree through which <code>g</code> is correct, and is
+     * only carried out to that degree, so the whole inversion costs a small
+     * multiple of one truncated product.
+     * 
+     * @param truncation <code>Truncation</code>: The truncation to apply, which
+     *                   must cap the total degree.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the constant term is zero.
+     */
+    private TensorFunction reciprocal(Truncation truncation) {
+
+        MatNumber a = constant();
+        if (a.abs() == 0.0) {
+
+            return null;
+        }
+
+        TensorFunction two = new TensorFunction(new Tensor(new int[] {}, 2));
+        TensorFunction g = new TensorFunction(new Tensor(new int[] {}, MatNumber.ONE.divide(a)));
+
+        // g is correct through degree precision - 1.
+        int total = truncation.getTotal();
+        for (int precision = 1; precision <= total;) {
+
+            precision = Math.min(2 * precision, total + 1);
+            Truncation step = truncation.withTotal(precision - 1);
+
+            g = g.multiply(two.subtract(multiply(g, step)), step);
+        }
+
+        return g.truncate(truncation);
+    }
+
+    /**
+     * Calculates the total degree of this <code>TensorFunction</code> instance.
+     * 
+     * @return <code>int</code>: The largest total degree of a non-zero term, or
+     *         <code>-1</code> if this function is zero.
+     */
+    private int totalDegree() {
+
+        int degree = -1;
+
+        int[] e = new int[coeffs.getNumDimensions()];
+        int sum = 0;
+        for (int i = 0; i < coeffs.size(); i++) {
+
+            if (!coeffs.get(i).equals(MatNumber.ZERO)) {
+
+                degree = Math.max(degree, sum);
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < e.length; d++) {
+
+                sum++;
+                if (++e[d] < coeffs.getDimension(d)) {
+
+                    break;
+                }
+
+                sum -= e[d];
+                e[d] = 0;
+            }
+        }
+
+        return degree;
+    }
+
+    /**
+     * Calculates the exponents of the largest monomial which divides every term of
+     * this <code>TensorFunction</code> instance.
+     * 
+     * @return <code>int[]</code>: The smallest exponent of a non-zero term in each
+     *         mode, or <code>null</code> if this function is zero.
+     */
+    private int[] lowestExponents() {
+
+        int[] lowest = null;
+
+        int[] e = new int[coeffs.getNumDimensions()];
+        for (int i = 0; i < coeffs.size(); i++) {
+
+            if (!coeffs.get(i).equals(MatNumber.ZERO)) {
+
+                if (lowest == null) {
+
+                    lowest = e.clone();
+                }
+
+                for (int d = 0; d < e.length; d++) {
+
+                    lowest[d] = Math.min(lowest[d], e[d]);
+                }
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < e.length; d++) {
+
+                if (++e[d] < coeffs.getDimension(d)) {
+
+                    break;
+                }
+
+                e[d] = 0;
+            }
+        }
+
+        return lowest;
+    }
+
+    /**
+     * Divides this <code>TensorFunction</code> instance by a monomial which
+     * divides every term.
+     * 
+     * @param shift <code>int[]</code>: The exponents of the monomial in each mode.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    private TensorFunction divideMonomial(int[] shift) {
+
+        int[] dims = coeffs.getDimensions();
+        int[] newDims = new int[dims.length];
+        for (int d = 0; d < dims.length; d++) {
+
+            newDims[d] = dims[d] - (d < shift.length ? shift[d] : 0);
+        }
+
+        MatNumber[] data = new MatNumber[Tensor.product(newDims)];
+        int[] e = new int[dims.length];
+        for (int i = 0; i < data.length; i++) {
+
+            int[] old = e.clone();
+            for (int d = 0; d < Math.min(shift.length, old.length); d++) {
+
+                old[d] += shift[d];
+            }
+
+            data[i] = coeffs.get(Tensor.index(old, dims));
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < e.length; d++) {
+
+                if (++e[d] < newDims[d]) {
+
+                    break;
+                }
+
+                e[d] = 0;
+            }
+        }
+
+        return new TensorFunction(new Tensor(newDims, data));
+    }
+
+    /**
+     * Computes the quotient between this <code>TensorFunction</code> instance and a
+     * scalar.
+     * 
+     * @param scalar <code>double</code>: The scalar to divide by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    @Override
     public final TensorFunction divide(double scalar) {
 
-        return new TensorFunction(coeffs.divide(scalar));
+        return new TensorFunction(coeffs.divide(scalar));
+    }
+
+    /**
+     * Computes the quotient between this <code>TensorFunction</code> instance and a
+     * scalar.
+     * 
+     * @param scalar <code>MatNumber</code>: The scalar to divide by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    @Override
+    public final TensorFunction divide(MatNumber scalar) {
+
+        return new TensorFunction(coeffs.divide(scalar));
+    }
+
+    /**
+     * Calculates the composition of this <code>TensorFunction</code> instance and
+     * another.
+     * 
+     * @param function <code>TensorFunction</code>: The function to compose with.
+     * @param mode     <code>int</code>: The variable index to compose over.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction compose(TensorFunction function, int mode) {
+
+        return compose(function, mode, MatContext.getTruncation());
+    }
+
+    /**
+     * Calculates the composition of this <code>TensorFunction</code> instance and
+     * another, keeping only the terms within a truncation. Each polynomial in the
+     * mode is either evaluated by Horner's rule or summed against shared powers of
+     * the other function, whichever forms fewer products.
+     * 
+     * @param function   <code>TensorFunction</code>: The function to compose with.
+     * @param mode       <code>int</code>: The variable index to compose over.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction compose(TensorFunction function, int mode, Truncation truncation) {
+
+        // If the composition variable is out of bounds, return null.
+        if (mode < 0 || mode >= getNumArgs()) {
+
+            return null;
+        }
+
+        int[] dims = coeffs.getDimensions();
+        int[] fDims = function.coeffs.getDimensions();
+
+        int[] newDims = new int[Math.max(dims.length, fDims.length)];
+        Arrays.fill(newDims, 1);
+
+        // If the highest degree f is raised to is 0, then there is no change.
+        int maxModeDegree = dims[mode] - 1;
+        if (maxModeDegree <= 0) {
+            return truncate(truncation);
+        }
+
+        // Add the dimensions of this function, except in the mode dimension.
+        for (int i = 0; i < dims.length; i++) {
+
+            if (i != mode) {
+
+                newDims[i] += dims[i] - 1;
+            }
+        }
+
+        // Add the dimensions of the function being composed, scaled by the maximum
+        // degree of the mode.
+        for (int i = 0; i < fDims.length; i++) {
+
+            newDims[i] += (fDims[i] - 1) * maxModeDegree;
+        }
+
+        int[] resultDims = truncation.limit(newDims);
+
+        int[] sliceDims = dims.clone();
+        sliceDims[mode] = 1;
+        int slices = Tensor.product(sliceDims);
+
+        int stride = 1;
+        for (int i = 0; i < mode; i++) {
+
+            stride *= dims[i];
+        }
+
+        // Find the combinations of exponents in the other modes which have a
+        // non-zero coefficient.
+        List<int[]> offsets = new ArrayList<>();
+        int nonZero = 0;
+        for (int slice = 0; slice < slices; slice++) {
+
+            int[] offset = offset(slice, sliceDims);
+            int base = Tensor.index(offset, dims);
+
+            int count = 0;
+            for (int i = 0; i < dims[mode]; i++) {
+
+                count += coeffs.get(base + i * stride).equals(MatNumber.ZERO) ? 0 : 1;
+            }
+
+            if (count > 0) {
+
+                offsets.add(offset);
+                nonZero += count;
+            }
+        }
+
+        int innerTerms = 0;
+        for (int k = 0; k < function.coeffs.size(); k++) {
+
+            innerTerms += function.coeffs.get(k).equals(MatNumber.ZERO) ? 0 : 1;
+        }
+
+        int[] powDims = new int[fDims.length];
+        for (int i = 0; i < fDims.length; i++) {
+
+            powDims[i] = (fDims[i] - 1) * maxModeDegree + 1;
+        }
+
+        boolean parallel = (long) Math.max(offsets.size(), dims[mode]) * innerTerms
+                * Tensor.product(truncation.limit(powDims)) >= PARALLEL_PAIRS;
+
+        int newSize = Tensor.product(resultDims);
+        double[] re = new double[newSize];
+        double[] im = coeffs.isReal() && function.coeffs.isReal() ? null : new double[newSize];
+
+        // Evaluating each polynomial in the mode by Horner's rule costs one product
+        // with the other function per degree, while sharing the powers of the other
+        // function costs one such product per degree plus one product of each slice
+        // along the mode with a power.
+        double hornerCost = (double) offsets.size() * innerTerms;
+        double ladderCost = innerTerms + (double) nonZero / dims[mode];
+
+        Part inner = part(function.coeffs);
+        final int modeStride = stride;
+        if (hornerCost <= ladderCost) {
+
+            // Each polynomial is independent, so they may be evaluated in parallel.
+            accumulate(offsets.size(), parallel,
+                    k -> horner(offsets.get(k), modeStride, mode, inner, truncation), resultDims, re, im);
+        } else {
+
+            // Climb the shared power ladder before the slices are spread across threads.
+            Ladder ladder = function.ladder(truncation);
+            ladder.get(maxModeDegree);
+
+            Part[] powers = new Part[dims[mode]];
+            for (int i = 0; i < dims[mode]; i++) {
+
+                powers[i] = ladder.get(i);
+            }
+
+            // Once the powers are known, the slices are independent.
+            accumulate(dims[mode], parallel, i -> {
+
+                Part slice = slice(offsets, modeStride, mode, i);
+                return slice == null ? null : multiply(powers[i], slice, truncation);
+            }, resultDims, re, im);
+        }
+
+        return new TensorFunction(toTensor(resultDims, re, im));
+    }
+
+    /**
+     * Calculates the composition of this <code>TensorFunction</code> instance with
+     * a replacement for each of its variables.
+     * 
+     * @param replacements <code>TensorFunction...</code>: The functions to replace
+     *                     each variable with.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction compose(TensorFunction... replacements) {
+
+        return compose(replacements, MatContext.getTruncation());
+    }
+
+    /**
+     * Calculates the composition of this <code>TensorFunction</code> instance with
+     * a replacement for each of its variables, keeping only the terms within a
+     * truncation. Every variable is substituted at once, so unlike composing one
+     * variable at a time, no replacement is substituted into another and no
+     * intermediate function holds both the old and new variables. A
+     * <code>null</code> replacement, or a variable beyond the replacements, is
+     * kept as it is. The powers of each replacement are calculated once and
+     * shared between every term of this function.
+     * 
+     * @param replacements <code>TensorFunction[]</code>: The functions to replace
+     *                     each variable with.
+     * @param truncation   <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction compose(TensorFunction[] replacements, Truncation truncation) {
+
+        int[] dims = coeffs.getDimensions();
+        int n = dims.length;
+
+        // A kept variable is replaced by itself.
+        Part[] inner = new Part[n];
+        for (int i = 0; i < n; i++) {
+
+            if (i < replacements.length && replacements[i] != null) {
+
+                inner[i] = part(replacements[i].coeffs);
+            } else {
+
+                int[] varDims = new int[i + 1];
+                Arrays.fill(varDims, 1);
+                varDims[i] = 2;
+                inner[i] = new Part(varDims, new int[0], new double[] { 0.0, 1.0 }, null);
+            }
+        }
+
+        // Each variable of the result has the degree of every replacement raised to
+        // the degree of the variable it replaces.
+        int length = 1;
+        for (Part part : inner) {
+
+            length = Math.max(length, part.dims().length);
+        }
+
+        int[] newDims = new int[length];
+        Arrays.fill(newDims, 1);
+        for (int i = 0; i < n; i++) {
+
+            for (int d = 0; d < inner[i].dims().length; d++) {
+
+                newDims[d] += (dims[i] - 1) * (inner[i].dims()[d] - 1);
+            }
+        }
+
+        int[] resultDims = truncation.limit(newDims);
+
+        // The powers of each replacement come from the shared power ladders, while
+        // the powers of a kept variable are single terms not worth sharing.
+        Part[][] powers = new Part[n][];
+        for (int i = 0; i < n; i++) {
+
+            boolean kept = i >= replacements.length || replacements[i] == null;
+            Ladder ladder = kept ? new Ladder(inner[i], truncation) : replacements[i].ladder(truncation);
+
+            powers[i] = new Part[dims[i]];
+            for (int k = 0; k < dims[i]; k++) {
+
+                powers[i][k] = ladder.get(k);
+            }
+        }
+
+        int[] strides = new int[n];
+        int factor = 1;
+        for (int i = 0; i < n; i++) {
+
+            strides[i] = factor;
+            factor *= dims[i];
+        }
+
+        boolean real = coeffs.isReal();
+        for (Part part : inner) {
+
+            real &= part.im() == null;
+        }
+
+        int newSize = Tensor.product(resultDims);
+        double[] re = new double[newSize];
+        double[] im = real ? null : new double[newSize];
+
+        // Each slice along the last variable is independent, so they may be
+        // substituted in parallel.
+        int last = n - 1;
+        boolean parallel = (long) coeffs.size() * newSize >= PARALLEL_PAIRS;
+        accumulate(dims[last], parallel, k -> {
+
+            Part slice = substitute(last - 1, k * strides[last], strides, powers, truncation);
+            return slice == null || k == 0 ? slice : multiply(slice, powers[last][k], truncation);
+        }, resultDims, re, im);
+
+        return new TensorFunction(toTensor(resultDims, re, im));
+    }
+
+    /**
+     * Substitutes the replacements for the variables of this
+     * <code>TensorFunction</code> instance up to a mode, with the exponents of the
+     * variables after it fixed.
+     * 
+     * @param mode       <code>int</code>: The last variable to substitute.
+     * @param base       <code>int</code>: The index of the fixed exponents.
+     * @param strides    <code>int[]</code>: The index stride of each variable.
+     * @param powers     <code>Part[][]</code>: The powers of the replacement of
+     *                   each variable.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>Part</code>: The calculated part, or <code>null</code> if it is
+     *         zero.
+     */
+    private Part substitute(int mode, int base, int[] strides, Part[][] powers, Truncation truncation) {
+
+        if (mode < 0) {
+
+            MatNumber coeff = coeffs.get(base);
+            return coeff.equals(MatNumber.ZERO) ? null
+                    : new Part(new int[] { 1 }, new int[0], new double[] { coeff.real() },
+                            coeffs.isReal() ? null : new double[] { coeff.imag() });
+        }
+
+        if (mode == 0) {
+
+            // The slice along the first variable is a combination of the powers of its
+            // replacement, so it needs no products.
+            int[] dims = { 1 };
+            boolean real = coeffs.isReal();
+            for (int k = 0; k < coeffs.getDimension(0); k++) {
+
+                if (!coeffs.get(base + k).equals(MatNumber.ZERO)) {
+
+                    dims = fit(dims, powers[0][k].dims());
+                    real &= powers[0][k].im() == null;
+                }
+            }
+
+            int length = Tensor.product(dims);
+            double[] re = new double[length];
+            double[] im = real ? null : new double[length];
+
+            boolean zero = true;
+            for (int k = 0; k < coeffs.getDimension(0); k++) {
+
+                MatNumber coeff = coeffs.get(base + k);
+                if (!coeff.equals(MatNumber.ZERO)) {
+
+                    addShifted(powers[0][k], coeff.real(), coeff.imag(), dims, re, im);
+                    zero = false;
+                }
+            }
+
+            return zero ? null : new Part(dims, new int[0], re, im);
+        }
+
+        Part sum = null;
+        for (int k = 0; k < coeffs.getDimension(mode); k++) {
+
+            Part slice = substitute(mode - 1, base + k * strides[mode], strides, powers, truncation);
+            if (slice != null) {
+
+                Part term = k == 0 ? slice : multiply(slice, powers[mode][k], truncation);
+                sum = sum == null ? term : add(sum, term);
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * <code>Part</code>: A record representing a dense tensor which forms part of
+     * a larger one, shifted by a set of exponents.
+     * 
+     * @param dims  <code>int[]</code>: The dimensions of the part.
+     * @param shift <code>int[]</code>: The exponents to shift the part by.
+     * @param re    <code>double[]</code>: The real components of the part.
+     * @param im    <code>double[]</code>: The imaginary components of the part, or
+     *              <code>null</code> if every coefficient is real.
+     */
+    private record Part(int[] dims, int[] shift, double[] re, double[] im) {
+    }
+
+    /**
+     * Calculates the multi-dimensional index of a flat index into a tensor.
+     * 
+     * @param index <code>int</code>: The flat index.
+     * @param dims  <code>int[]</code>: The dimensions of the tensor.
+     * @return <code>int[]</code>: The calculated multi-dimensional index.
+     */
+    private static int[] offset(int index, int[] dims) {
+
+        int[] offset = new int[dims.length];
+        for (int d = 0; d < dims.length; d++) {
+
+            offset[d] = index % dims[d];
+            index /= dims[d];
+        }
+
+        return offset;
+    }
+
+    /**
+     * Collects the coefficients of this <code>TensorFunction</code> instance with a
+     * given exponent in a mode.
+     * 
+     * @param offsets <code>List&lt;int[]&gt;</code>: The combinations of exponents
+     *                in the other modes which have a non-zero coefficient.
+     * @param stride  <code>int</code>: The index stride of the mode.
+     * @param mode    <code>int</code>: The mode to slice along.
+     * @param degree  <code>int</code>: The exponent in the mode to collect.
+     * @return <code>Part</code>: The collected coefficients, whose dimension in
+     *         the mode is <code>1</code>, or <code>null</code> if every one is
+     *         zero.
+     */
+    private Part slice(List<int[]> offsets, int stride, int mode, int degree) {
+
+        int[] dims = coeffs.getDimensions();
+        int[] sliceDims = dims.clone();
+        sliceDims[mode] = 1;
+
+        int size = Tensor.product(sliceDims);
+        double[] re = new double[size];
+        double[] im = coeffs.isReal() ? null : new double[size];
+
+        boolean zero = true;
+        for (int[] offset : offsets) {
+
+            MatNumber coeff = coeffs.get(Tensor.index(offset, dims) + degree * stride);
+            int index = Tensor.index(offset, sliceDims);
+            re[index] = coeff.real();
+            if (im != null) {
+
+                im[index] = coeff.imag();
+            }
+            zero &= coeff.equals(MatNumber.ZERO);
+        }
+
+        return zero ? null : new Part(sliceDims, new int[0], re, im);
+    }
+
+    /**
+     * Adds a sequence of independently calculated parts to the components of a
+     * larger tensor. The parts may be calculated in parallel, but are always added
+     * in order, so that the result does not depend on the parallelism.
+     * 
+     * @param count    <code>int</code>: The number of parts to add.
+     * @param parallel <code>boolean</code>: Whether or not to calculate the parts
+     *                 in parallel.
+     * @param parts    <code>IntFunction&lt;Part&gt;</code>: The function used to
+     *                 calculate each part, which may return <code>null</code> for
+     *                 a part which is zero.
+     * @param dims     <code>int[]</code>: The dimensions of the larger tensor.
+     * @param re       <code>double[]</code>: The real components to add to.
+     * @param im       <code>double[]</code>: The imaginary components to add to, or
+     *                 <code>null</code> if every coefficient is real.
+     */
+    private static void accumulate(int count, boolean parallel, IntFunction<Part> parts, int[] dims, double[] re,
+            double[] im) {
+
+        // Only a block of parts is held at once.
+        int block = parallel ? 4 * ForkJoinPool.getCommonPoolParallelism() : 1;
+        for (int lo = 0; lo < count; lo += block) {
+
+            IntStream range = IntStream.range(lo, Math.min(count, lo + block));
+            for (Part part : (parallel ? range.parallel() : range).mapToObj(parts).toList()) {
+
+                if (part != null) {
+
+                    addShifted(part, dims, re, im);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates the polynomial in the mode at a fixed set of exponents in the other
+     * modes of this <code>TensorFunction</code> instance at another function, using
+     * Horner's rule <code>(((a_n g + a_{n-1}) g + ...) g + a_0)</code>. The
+     * truncation is shifted down by the fixed exponents, so that only terms kept
+     * once the result is multiplied back by them are carried between steps.
+     * 
+     * @param offset     <code>int[]</code>: The exponents in the other modes, with
+     *                   the exponent in the mode set to <code>0</code>.
+     * @param stride     <code>int</code>: The index stride of the mode.
+     * @param mode       <code>int</code>: The mode being composed over.
+     * @param inner      <code>Part</code>: The coefficients of the function being
+     *                   composed with.
+     * @param truncation <code>Truncation</code>: The truncation of the composition.
+     * @return <code>Part</code>: The calculated polynomial, shifted by the fixed
+     *         exponents, or <code>null</code> if it lies beyond the truncation.
+     */
+    private Part horner(int[] offset, int stride, int mode, Part inner, Truncation truncation) {
+
+        Truncation shifted = truncation.shift(offset);
+        if (shifted == null) {
+
+            return null;
+        }
+
+        int base = Tensor.index(offset, coeffs.getDimensions());
+
+        // Skip any vanishing leading coefficients.
+        int top = coeffs.getDimension(mode) - 1;
+        while (coeffs.get(base + top * stride).equals(MatNumber.ZERO)) {
+
+            top--;
+        }
+
+        MatNumber lead = coeffs.get(base + top * stride);
+        Part sum = new Part(new int[] { 1 }, offset, new double[] { lead.real() },
+                coeffs.isReal() ? null : new double[] { lead.imag() });
+        for (int i = top - 1; i >= 0; i--) {
+
+            sum = multiply(sum, inner, shifted);
+
+            MatNumber coeff = coeffs.get(base + i * stride);
+            sum.re()[0] += coeff.real();
+            if (sum.im() != null) {
+
+                sum.im()[0] += coeff.imag();
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Computes the polynomial product between two parts, clearing the terms
+     * beyond a truncation. The parts are first mapped into a layout large enough
+     * to hold the product, so the index of a product of two terms is the sum of
+     * their indices and the product is a single convolution.
+     * 
+     * @param first      <code>Part</code>: The first part to multiply.
+     * @param second     <code>Part</code>: The second part to multiply.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>Part</code>: The calculated part, with the same shift as the
+     *         first.
+     */
+    private static Part multiply(Part first, Part second, Truncation truncation) {
+
+        int[] kept = truncation.limit(first.dims());
+        int[] secondDims = second.dims();
+
+        int[] newDims = new int[Math.max(kept.length, secondDims.length)];
+        for (int d = 0; d < newDims.length; d++) {
+
+            newDims[d] = (d < kept.length ? kept[d] : 1) + (d < secondDims.length ? secondDims[d] : 1) - 1;
+        }
+
+        int length = Tensor.product(newDims);
+        double[] re = new double[length];
+        double[] im = first.im() == null && second.im() == null ? null : new double[length];
+        multiplyInto(terms(first.re(), first.im(), first.dims(), newDims),
+                terms(second.re(), second.im(), secondDims, newDims), re, im);
+
+        if (!truncation.isNone()) {
+
+            truncate(re, im, newDims, truncation);
+        }
+
+        return new Part(newDims, first.shift(), re, im);
+    }
+
+    /**
+     * Adds two parts which share the same shift.
+     * 
+     * @param first  <code>Part</code>: The first part to add.
+     * @param second <code>Part</code>: The second part to add.
+     * @return <code>Part</code>: The calculated part.
+     */
+    private static Part add(Part first, Part second) {
+
+        int[] dims = fit(first.dims(), second.dims());
+
+        int length = Tensor.product(dims);
+        double[] re = new double[length];
+        double[] im = first.im() == null && second.im() == null ? null : new double[length];
+
+        int[] zero = new int[0];
+        addShifted(new Part(first.dims(), zero, first.re(), first.im()), dims, re, im);
+        addShifted(new Part(second.dims(), zero, second.re(), second.im()), dims, re, im);
+
+        return new Part(dims, first.shift(), re, im);
+    }
+
+    /**
+     * Calculates the smallest dimensions which fit two sets of dimensions.
+     * 
+     * @param dims1 <code>int[]</code>: The first dimensions to fit.
+     * @param dims2 <code>int[]</code>: The second dimensions to fit.
+     * @return <code>int[]</code>: The calculated dimensions.
+     */
+    private static int[] fit(int[] dims1, int[] dims2) {
+
+        int[] dims = new int[Math.max(dims1.length, dims2.length)];
+        for (int d = 0; d < dims.length; d++) {
+
+            dims[d] = Math.max(d < dims1.length ? dims1[d] : 1, d < dims2.length ? dims2[d] : 1);
+        }
+
+        return dims;
+    }
+
+    /**
+     * Creates a part from the coefficients of a tensor.
+     * 
+     * @param t <code>Tensor</code>: The tensor to create from.
+     * @return <code>Part</code>: The created part, with no shift.
+     */
+    private static Part part(Tensor t) {
+
+        return new Part(t.getDimensions(), new int[0], t.getReal(), t.isReal() ? null : t.getImag());
+    }
+
+    /**
+     * Clears the components of a dense tensor beyond a truncation.
+     * 
+     * @param re         <code>double[]</code>: The real components of the tensor.
+     * @param im         <code>double[]</code>: The imaginary components of the
+     *                   tensor, or <code>null</code> if every coefficient is real.
+     * @param dims       <code>int[]</code>: The dimensions of the tensor.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     */
+    private static void truncate(double[] re, double[] im, int[] dims, Truncation truncation) {
+
+        int n = dims.length;
+        int[] caps = new int[n];
+        for (int d = 0; d < n; d++) {
+
+            caps[d] = truncation.getDegree(d);
+        }
+
+        int[] e = new int[n];
+        int degree = 0;
+        for (int k = 0; k < re.length; k++) {
+
+            boolean kept = degree <= truncation.getTotal();
+            for (int d = 0; d < n && kept; d++) {
+
+                kept = e[d] <= caps[d];
+            }
+
+            if (!kept) {
+
+                re[k] = 0.0;
+                if (im != null) {
+
+                    im[k] = 0.0;
+                }
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < n; d++) {
+
+                degree++;
+                if (++e[d] < dims[d]) {
+
+                    break;
+                }
+
+                degree -= e[d];
+                e[d] = 0;
+            }
+        }
     }
 
     /**
-     * Computes the quotient between this <code>TensorFunction</code> instance and a
-     * scalar.
+     * Adds a part, shifted by its exponents, to the components of a larger tensor.
+     * Coefficients shifted beyond the larger tensor are dropped.
      * 
-     * @param scalar <code>MatNumber</code>: The scalar to divide by.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param part <code>Part</code>: The part to add.
+     * @param dims <code>int[]</code>: The dimensions of the larger tensor.
+     * @param re   <code>double[]</code>: The real components to add to.
+     * @param im   <code>double[]</code>: The imaginary components to add to, or
+     *             <code>null</code> if every coefficient is real.
+     */
+    private static void addShifted(Part part, int[] dims, double[] re, double[] im) {
+
+        addShifted(part, 1.0, 0.0, dims, re, im);
+    }
+
+    /**
+     * Adds a multiple of a part, shifted by its exponents, to the components of a
+     * larger tensor. Coefficients shifted beyond the larger tensor are dropped.
+     * 
+     * @param part    <code>Part</code>: The part to add.
+     * @param scaleRe <code>double</code>: The real component of the multiple.
+     * @param scaleIm <code>double</code>: The imaginary component of the multiple.
+     * @param dims    <code>int[]</code>: The dimensions of the larger tensor.
+     * @param re      <code>double[]</code>: The real components to add to.
+     * @param im      <code>double[]</code>: The imaginary components to add to, or
+     *                <code>null</code> if every coefficient and the multiple are
+     *                real.
+     */
+    private static void addShifted(Part part, double scaleRe, double scaleIm, int[] dims, double[] re,
+            double[] im) {
+
+        int[] shift = part.shift();
+        if (scaleIm == 0.0 && Arrays.equals(part.dims(), dims) && Arrays.stream(shift).allMatch(e -> e == 0)) {
+
+            addInto(re, part.re(), scaleRe);
+            if (part.im() != null) {
+
+                addInto(im, part.im(), scaleRe);
+            }
+
+            return;
+        }
+
+        int n = part.dims().length;
+
+        int[] e = new int[n];
+        for (int k = 0; k < part.re().length; k++) {
+
+            double partRe = part.re()[k];
+            double partIm = part.im() == null ? 0.0 : part.im()[k];
+            if (partRe != 0.0 || partIm != 0.0) {
+
+                int index = 0;
+                int factor = 1;
+                boolean kept = true;
+                for (int d = 0; d < dims.length && kept; d++) {
+
+                    int exponent = (d < n ? e[d] : 0) + (d < shift.length ? shift[d] : 0);
+                    index += exponent * factor;
+                    factor *= dims[d];
+                    kept = exponent < dims[d];
+                }
+
+                if (kept) {
+
+                    re[index] += scaleRe * partRe - scaleIm * partIm;
+                    if (im != null) {
+
+                        im[index] += scaleRe * partIm + scaleIm * partRe;
+                    }
+                }
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < n; d++) {
+
+                if (++e[d] < part.dims()[d]) {
+
+                    break;
+                }
+
+                e[d] = 0;
+            }
+        }
+    }
+
+    /**
+     * Calculates the nth derivative of this <code>TensorFunction</code> instance
+     * with respect to a given mode.
+     * 
+     * @param mode <code>int</code>: The mode to differentiate along.
+     * @param n    <code>int</code>: The order of the derivative.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the order is negative.
      */
     @Override
-    public final TensorFunction divide(MatNumber scalar) {
+    public final TensorFunction differ(int mode, int n) {
 
-        return new TensorFunction(coeffs.divide(scalar));
+        if (n < 0) {
+
+            return null;
+        }
+
+        int[] dimensions = coeffs.getDimensions();
+
+        if (mode >= dimensions.length) {
+
+            return ZERO;
+        }
+
+        int degree = dimensions[mode] - 1;
+        if (degree < 1) {
+
+            return ZERO;
+        }
+
+        return (TensorFunction) derived().computeIfAbsent(new Derivation(DIFFER, mode, n),
+                _ -> transform(CalculusOperator.IDENTITY.differ(mode, n)));
     }
 
     /**
-     * Calculates the composition of this <code>TensorFunction</code> instance and
-     * another.
+     * Applies a chain of derivatives and integrals to this
+     * <code>TensorFunction</code> instance in a single pass over its
+     * coefficients. Each coefficient is multiplied by the product of its weights
+     * along each mode and written directly to its shifted index, so no operator
+     * matrices or intermediate functions are formed.
      * 
-     * @param function <code>TensorFunction</code>: The function to compose with.
-     * @param mode     <code>int</code>: The variable index to compose over.
+     * @param operator <code>CalculusOperator</code>: The chain to apply.
      * @return <code>TensorFunction</code>: The calculated function.
      */
-    public final TensorFunction compose(TensorFunction function, int mode) {
+    final TensorFunction transform(CalculusOperator operator) {
 
-        // If the composition variable is out of bounds, return null.
-        if (mode < 0 || mode >= getNumArgs()) {
+        int[] dims = coeffs.getDimensions();
+        int n = Math.max(dims.length, operator.getNumModes());
 
-            return null;
+        // Modes beyond the arguments of this function are constant.
+        int[] oldDims = Arrays.copyOf(dims, n);
+        int[] newDims = new int[n];
+        int[] shifts = new int[n];
+        int[] strides = new int[n];
+        double[][] weights = new double[n][];
+        int size = 1;
+        for (int d = 0; d < n; d++) {
+
+            if (d >= dims.length) {
+
+                oldDims[d] = 1;
+            }
+
+            shifts[d] = operator.shift(d);
+            newDims[d] = oldDims[d] + shifts[d];
+
+            // Differentiating past the degree of a mode gives 0.
+            if (newDims[d] < 1) {
+
+                return ZERO;
+            }
+
+            weights[d] = operator.weights(d, oldDims[d]);
+            strides[d] = size;
+            size *= newDims[d];
+        }
+
+        double[][] p = parts();
+        double[] re = p[0];
+        double[] im = p[1];
+
+        double[] newRe = new double[size];
+        double[] newIm = im == null ? null : new double[size];
+
+        int[] e = new int[n];
+        for (int k = 0; k < re.length; k++) {
+
+            double cRe = re[k];
+            double cIm = im == null ? 0.0 : im[k];
+            if (cRe != 0.0 || cIm != 0.0) {
+
+                double weight = 1.0;
+                int target = 0;
+                for (int d = 0; d < n; d++) {
+
+                    weight *= weights[d][e[d]];
+                    target += (e[d] + shifts[d]) * strides[d];
+                }
+
+                if (weight != 0.0) {
+
+                    newRe[target] = weight * cRe;
+                    if (newIm != null) {
+
+                        newIm[target] = weight * cIm;
+                    }
+                }
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < n; d++) {
+
+                if (++e[d] < oldDims[d]) {
+
+                    break;
+                }
+
+                e[d] = 0;
+            }
         }
 
+        return new TensorFunction(toTensor(newDims, newRe, newIm));
+    }
+
+    /**
+     * Calculates the gradient of this <code>TensorFunction</code> instance. Every
+     * first partial derivative is calculated in a single sweep over the
+     * coefficients, and each is remembered as that mode's first derivative.
+     *
+     * @return <code>VectorFunction</code>: The calculated vector-valued function
+     *         representing the gradient.
+     */
+    public final VectorFunction gradient() {
+
+        return (VectorFunction) derived().computeIfAbsent(new Derivation(GRADIENT, 0, 1), _ -> {
+
+            TensorFunction[] partials = partials();
+            TensorFunction[] derivs = new TensorFunction[partials.length];
+
+            for (int i = 0; i < derivs.length; i++) {
+
+                TensorFunction partial = partials[i];
+                derivs[i] = partial == ZERO ? ZERO
+                        : (TensorFunction) derived().computeIfAbsent(new Derivation(DIFFER, i, 1), _ -> partial);
+            }
+
+            return new VectorFunction(derivs);
+        });
+    }
+
+    /**
+     * Calculates the Hessian of this <code>TensorFunction</code> instance. Since
+     * the Hessian is symmetric, only the second partial derivatives on and below
+     * its diagonal are calculated and stored.
+     *
+     * @return <code>MatrixFunction</code>: The calculated symmetric matrix-valued
+     *         function representing the Hessian.
+     */
+    public final MatrixFunction hessian() {
+
+        return (MatrixFunction) derived().computeIfAbsent(new Derivation(HESSIAN, 0, 2), _ -> {
+
+            int n = getNumArgs();
+            VectorFunction gradient = gradient();
+
+            TensorFunction[] packed = new TensorFunction[n * (n + 1) / 2];
+            for (int i = 0; i < n; i++) {
+
+                TensorFunction partial = gradient.get(i);
+                for (int j = 0; j <= i; j++) {
+
+                    packed[i * (i + 1) / 2 + j] = partial.differ(j, 1);
+                }
+            }
+
+            return MatrixFunction.symmetric(n, packed);
+        });
+    }
+
+    /**
+     * Calculates every first partial derivative of this
+     * <code>TensorFunction</code> instance in a single sweep over its
+     * coefficients. Each coefficient is scaled by its exponent in each mode and
+     * written directly into that mode's pre-sized output, so the sweep costs one
+     * pass per mode over the coefficients and forms no differentiation matrices.
+     *
+     * @return <code>TensorFunction[]</code>: The partial derivatives with respect
+     *         to each mode, where modes of degree zero are <code>ZERO</code>.
+     */
+    private TensorFunction[] partials() {
+
         int[] dims = coeffs.getDimensions();
-        int[] fDims = function.coeffs.getDimensions();
+        int n = dims.length;
 
-        int[] newDims = new int[Math.max(dims.length, fDims.length)];
-        Arrays.fill(newDims, 1);
+        double[][] p = parts();
+        double[] re = p[0];
+        double[] im = p[1];
 
-        // If the highest degree f is raised to is 0, then there is no change.
-        int maxModeDegree = dims[mode] - 1;
-        if (maxModeDegree <= 0) {
-            return this;
+        // The strides of each partial derivative, whose mode shrinks by one.
+        int[][] strides = new int[n][];
+        double[][] outRe = new double[n][];
+        double[][] outIm = new double[n][];
+        for (int i = 0; i < n; i++) {
+
+            if (dims[i] < 2) {
+
+                continue;
+            }
+
+            strides[i] = new int[n];
+            int stride = 1;
+            for (int d = 0; d < n; d++) {
+
+                strides[i][d] = stride;
+                stride *= d == i ? dims[d] - 1 : dims[d];
+            }
+
+            outRe[i] = new double[stride];
+            outIm[i] = im == null ? null : new double[stride];
         }
 
-        // Add the dimensions of this function, except in the mode dimension.
-        for (int i = 0; i < dims.length; i++) {
+        // The change in each output index when a mode is advanced and every lower
+        // mode wraps back to zero.
+        int[][] carries = new int[n][n];
+        for (int i = 0; i < n; i++) {
 
-            if (i != mode) {
+            if (strides[i] == null) {
 
-                newDims[i] += dims[i] - 1;
+                continue;
+            }
+
+            int wrapped = 0;
+            for (int d = 0; d < n; d++) {
+
+                carries[i][d] = strides[i][d] - wrapped;
+                wrapped += (dims[d] - 1) * strides[i][d];
             }
         }
 
-        // Add the dimensions of the function being composed, scaled by the maximum
-        // degree of the mode.
-        for (int i = 0; i < fDims.length; i++) {
+        // Each output index starts one step below the origin in its own mode.
+        int[] e = new int[n];
+        int[] targets = new int[n];
+        for (int i = 0; i < n; i++) {
+
+            targets[i] = strides[i] == null ? 0 : -strides[i][i];
+        }
+
+        for (int k = 0; k < re.length; k++) {
+
+            double cRe = re[k];
+            double cIm = im == null ? 0.0 : im[k];
+            if (cRe != 0.0 || cIm != 0.0) {
+
+                for (int i = 0; i < n; i++) {
+
+                    if (e[i] == 0 || strides[i] == null) {
+
+                        continue;
+                    }
+
+                    outRe[i][targets[i]] = e[i] * cRe;
+                    if (im != null) {
+
+                        outIm[i][targets[i]] = e[i] * cIm;
+                    }
+                }
+            }
+
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < n; d++) {
+
+                if (++e[d] < dims[d]) {
+
+                    for (int i = 0; i < n; i++) {
+
+                        targets[i] += carries[i][d];
+                    }
+
+                    break;
+                }
+
+                e[d] = 0;
+            }
+        }
+
+        TensorFunction[] partials = new TensorFunction[n];
+        for (int i = 0; i < n; i++) {
+
+            if (strides[i] == null) {
+
+                partials[i] = ZERO;
+                continue;
+            }
+
+            int[] newDims = dims.clone();
+            newDims[i]--;
+            partials[i] = new TensorFunction(toTensor(newDims, outRe[i], outIm[i]));
+        }
+
+        return partials;
+    }
+
+    /**
+     * Calculates the Laplacian of this <code>TensorFunction</code> instance, which
+     * is the sum of its unmixed second partial derivatives. The second derivatives
+     * are gathered into a single pass over the coefficients of the result, so none
+     * of them are formed on their own.
+     *
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction laplacian() {
+
+        return (TensorFunction) derived().computeIfAbsent(new Derivation(LAPLACIAN, 0, 2), _ -> {
+
+            int n = getNumArgs();
+
+            TensorFunction[] functions = new TensorFunction[n];
+            int[] orders = new int[n];
+            double[] scales = new double[n];
+            Arrays.fill(functions, this);
+            Arrays.fill(orders, 2);
+            Arrays.fill(scales, 1.0);
+
+            return sumPartials(functions, IntStream.range(0, n).toArray(), orders, scales);
+        });
+    }
+
+    /**
+     * Calculates a weighted sum of partial derivatives of several functions in a
+     * single gather over the coefficients of the result. Each coefficient of the
+     * result reads the matching coefficient of every term, weighted by the factor
+     * its derivative brings down, and is written once, so no derivatives or
+     * partial sums are formed on their own.
+     *
+     * @param functions <code>TensorFunction[]</code>: The function of each term.
+     * @param modes     <code>int[]</code>: The mode each term is differentiated
+     *                  along.
+     * @param orders    <code>int[]</code>: The order of the derivative of each
+     *                  term.
+     * @param scales    <code>double[]</code>: The factor each term is multiplied
+     *                  by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    static TensorFunction sumPartials(TensorFunction[] functions, int[] modes, int[] orders, double[] scales) {
+
+        // Terms differentiated along a constant mode, or past its degree, are 0.
+        int[] kept = new int[functions.length];
+        int count = 0;
+        int n = 0;
+        for (int k = 0; k < functions.length; k++) {
+
+            int[] dims = functions[k].coeffs.getDimensions();
+            if (modes[k] >= 0 && modes[k] < dims.length && dims[modes[k]] > orders[k] && scales[k] != 0.0) {
+
+                kept[count++] = k;
+                n = Math.max(n, dims.length);
+            }
+        }
+
+        if (count == 0) {
+
+            return ZERO;
+        }
+
+        int[] termModes = new int[count];
+        int[][] termDims = new int[count][n];
+        int[][] strides = new int[count][n];
+        double[][] weights = new double[count][];
+        double[][] termRe = new double[count][];
+        double[][] termIm = new double[count][];
+        int[] sources = new int[count];
+        boolean real = true;
+
+        int[] newDims = new int[n];
+        Arrays.fill(newDims, 1);
+
+        for (int t = 0; t < count; t++) {
+
+            int k = kept[t];
+            int[] dims = functions[k].coeffs.getDimensions();
+            int mode = modes[k];
+            int order = orders[k];
+
+            int stride = 1;
+            for (int d = 0; d < n; d++) {
+
+                // Modes beyond the arguments of a function are constant.
+                int dim = d < dims.length ? dims[d] : 1;
+                strides[t][d] = stride;
+                stride *= dim;
+
+                termDims[t][d] = d == mode ? dim - order : dim;
+                newDims[d] = Math.max(newDims[d], termDims[t][d]);
+            }
+
+            // (i + order)!/i!, the factor brought down onto x^i by the derivative.
+            weights[t] = new double[termDims[t][mode]];
+            for (int i = 0; i < weights[t].length; i++) {
+
+                double w = scales[k];
+                for (int j = 1; j <= order; j++) {
+
+                    w *= i + j;
+                }
+                weights[t][i] = w;
+            }
+
+            double[][] p = functions[k].parts();
+            termRe[t] = p[0];
+            termIm[t] = p[1];
+            real &= p[1] == null;
+
+            termModes[t] = mode;
+            sources[t] = order * strides[t][mode];
+        }
+
+        int size = Tensor.product(newDims);
+        double[] re = new double[size];
+        double[] im = real ? null : new double[size];
+
+        // The number of modes in which the current index lies beyond each term.
+        int[] outside = new int[count];
+        int[] e = new int[n];
+        for (int index = 0; index < size; index++) {
+
+            double sumRe = 0.0;
+            double sumIm = 0.0;
+            for (int t = 0; t < count; t++) {
+
+                if (outside[t] == 0) {
+
+                    double w = weights[t][e[termModes[t]]];
+                    sumRe += w * termRe[t][sources[t]];
+                    if (termIm[t] != null) {
+
+                        sumIm += w * termIm[t][sources[t]];
+                    }
+                }
+            }
 
-            newDims[i] += (fDims[i] - 1) * maxModeDegree;
-        }
+            re[index] = sumRe;
+            if (im != null) {
 
-        int newSize = Tensor.product(newDims);
-        MatNumber[] newData = new MatNumber[newSize];
-        Arrays.fill(newData, MatNumber.ZERO);
+                im[index] = sumIm;
+            }
 
-        final Tensor[] f = new Tensor[] { new Tensor(new int[] { 1 }, 1) };
+            // Advance to the next multi-dimensional index.
+            for (int d = 0; d < n; d++) {
 
-        int lengthOld = 1;
+                if (++e[d] < newDims[d]) {
 
-        // Calculate the index offset for the old and new tensors.
-        for (int i = 0; i < mode; i++) {
+                    for (int t = 0; t < count; t++) {
 
-            lengthOld *= dims[i];
-        }
+                        sources[t] += strides[t][d];
+                        if (e[d] == termDims[t][d]) {
+
+                            outside[t]++;
+                        }
+                    }
 
-        // Iterate through each degree of f.
-        for (int i = 0; i < dims[mode]; i++) {
+                    break;
+                }
 
-            // Iterate through each index in this tensor except in the mode dimension.
-            composeFirstIterate(0, mode, coeffs, i * lengthOld, 1, newDims, 0, 1, (coeff, index) -> {
+                for (int t = 0; t < count; t++) {
 
-                // Iterate through each index in f^i.
-                composeSecondIterate(0, coeff, f[0], 0, 1, newDims, index, 1, newData);
-            });
+                    sources[t] -= (newDims[d] - 1) * strides[t][d];
+                    if (newDims[d] > termDims[t][d]) {
 
-            // Adjust for the next power of f.
-            if (i < maxModeDegree) {
+                        outside[t]--;
+                    }
+                }
 
-                f[0] = multiply(f[0], function.coeffs);
+                e[d] = 0;
             }
         }
 
-        return new TensorFunction(new Tensor(newDims, newData));
+        return new TensorFunction(toTensor(newDims, re, im));
     }
 
     /**
-     * <code>ComposeConsumer</code>: A functional interface for consuming
-     * coefficients and indices in the first stage of polynomial composition.
+     * Computes the total derivative of this <code>TensorFunction</code> instance,
+     * composed of the provided inner (auxilary) functions, with respect to a given
+     * mode. The dependency graph of the inner functions is compiled once into a
+     * plan which is shared between calls, so repeated total derivatives, along any
+     * mode and of any outer function, reuse the chain rule terms already found
+     * under the same truncation.
+     * 
+     * @param mode  <code>int</code>: The mode to differentiate along. This mode may
+     *              be an inner function.
+     * @param inner <code>TensorFunction...</code>: The inner (auxilary) functions,
+     *              where the index corresponds to a given mode (variable index).
+     *              Inner functions which are left as <code>null</code> values or
+     *              which are excluded from the list are treated as independent
+     *              variables.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the inner functions depend on each other in a
+     *         cycle or a required reciprocal derivative has no Taylor series.
      */
-    @FunctionalInterface
-    private interface ComposeConsumer {
+    public final TensorFunction totalDiffer(int mode, TensorFunction... inner) {
 
-        /**
-         * Accepts a coefficient and index.
-         * 
-         * @param coeff <code>MatNumber</code>: The coefficient calculated in the first
-         *              stage.
-         * @param index <code>int</code>: The index offset calculated in the first
-         *              stage.
-         */
-        public void accept(MatNumber coeff, int index);
+        DifferPlan plan = DifferPlan.of(inner);
+        if (plan == null) {
+
+            return null;
+        }
+
+        return totalDiffer(mode, plan);
     }
 
     /**
-     * Iterates through the first tensor in polynomial composition.
+     * Calculates the total derivative of this <code>TensorFunction</code>
+     * instance, composed of the provided inner (auxilary) functions, with respect
+     * to a given mode at a point. Rather than expanding the derivative
+     * symbolically, the partial derivatives of each function are evaluated at the
+     * point in a single pass and propagated forward through the dependency graph,
+     * so the cost is one evaluation per function. Reciprocal derivatives are
+     * calculated exactly rather than as Taylor series.
      * 
-     * @param dim         <code>int</code>: The current dimension.
-     * @param mode        <code>int</code>: The mode dimension to skip.
-     * @param first       <code>Tensor</code>: The first tensor.
-     * @param indexOld    <code>int</code>: The current index in the first tensor.
-     * @param indCoeffOld <code>int</code>: The index coefficient for the first
-     *                    tensor.
-     * @param newDims     <code>int[]</code>: The dimensions of the new tensor.
-     * @param indexNew    <code>int</code>: The current index in the new tensor.
-     * @param indCoeffNew <code>int</code>: The index coefficient for the second
-     *                    tensor.
-     * @param p           <code>ComposeConsumer</code>: The consumer to apply at the
-     *                    end of iteration in the first tensor.
+     * @param mode  <code>int</code>: The mode to differentiate along. This mode may
+     *              be an inner function.
+     * @param point <code>double[]</code>: The value of every variable, including
+     *              those given by inner functions, to evaluate at.
+     * @param inner <code>TensorFunction...</code>: The inner (auxilary) functions,
+     *              where the index corresponds to a given mode (variable index).
+     *              Inner functions which are left as <code>null</code> values or
+     *              which are excluded from the list are treated as independent
+     *              variables.
+     * @return <code>double</code>: The resulting value, or <code>NaN</code> if the
+     *         inner functions depend on each other in a cycle, there are not
+     *         enough provided arguments or a coefficient is not real.
      */
-    private static void composeFirstIterate(int dim, int mode, Tensor first, int indexOld, int indCoeffOld,
-            int[] newDims,
-            int indexNew, int indCoeffNew, ComposeConsumer p) {
+    public final double totalDerivativeAt(int mode, double[] point, TensorFunction... inner) {
 
-        if (dim >= first.getNumDimensions()) {
+        DifferPlan plan = DifferPlan.of(inner);
+        if (plan == null) {
 
-            p.accept(first.get(indexOld), indexNew);
-            return;
+            return Double.NaN;
         }
 
-        int oldLength = first.getDimension(dim);
-        int newLength = newDims[dim];
-
-        if (dim == mode) {
+        double[] gradient = new double[getNumArgs()];
+        if (Double.isNaN(applyWithGradient(point, gradient))) {
 
-            composeFirstIterate(dim + 1, mode, first, indexOld, indCoeffOld * oldLength, newDims,
-                    indexNew, indCoeffNew * newLength, p);
-            return;
+            return Double.NaN;
         }
 
-        for (int i = 0; i < oldLength; i++) {
+        // Modes outside of the graph have no dependent variables.
+        double[] column = null;
+        if (mode < plan.args.length) {
 
-            composeFirstIterate(dim + 1, mode, first, indexOld + i * indCoeffOld, indCoeffOld * oldLength, newDims,
-                    indexNew + i * indCoeffNew, indCoeffNew * newLength, p);
+            column = plan.columnAt(mode, point, new double[plan.args.length][]);
+            if (column == null) {
+
+                return Double.NaN;
+            }
         }
-    }
 
-    /**
-     * Iterates through the second tensor in polynomial composition.
-     * 
-     * @param mode        <code>int</code>: The current mode.
-     * @param coeff       <code>MatNumber</code>: The coefficient from the first
-     *                    tensor.
-     * @param second      <code>Tensor</code>: The second tensor.
-     * @param indexOld    <code>int</code>: The current index in the second tensor.
-     * @param indCoeffOld <code>int</code>: The index coefficient for the second
-     *                    tensor.
-     * @param newDims     <code>int[]</code>: The dimensions of the new tensor.
-     * @param indexNew    <code>int</code>: The current index in the new tensor.
-     * @param indCoeffNew <code>int</code>: The index coefficient for the new
-     *                    tensor.
-     * @param data        <code>MatNumber[]</code>: The data array of the new
-     *                    tensor.
-     */
-    private static void composeSecondIterate(int mode, MatNumber coeff, Tensor second, int indexOld, int indCoeffOld,
-            int[] newDims, int indexNew, int indCoeffNew, MatNumber[] data) {
+        double sum = 0.0;
+        for (int i = 0; i < gradient.length; i++) {
 
-        if (mode >= second.getNumDimensions()) {
+            if (coeffs.getDimension(i) < 2) {
 
-            data[indexNew] = data[indexNew].add(second.get(indexOld).multiply(coeff));
-            return;
-        }
+                continue;
+            }
 
-        int oldLength = second.getDimension(mode);
-        int newLength = newDims[mode];
+            if (i == mode) {
 
-        for (int i = 0; i < oldLength; i++) {
+                sum += gradient[i];
+            } else if (column != null && i < column.length) {
 
-            composeSecondIterate(mode + 1, coeff, second, indexOld + i * indCoeffOld, indCoeffOld * oldLength, newDims,
-                    indexNew + i * indCoeffNew, indCoeffNew * newLength, data);
+                sum += gradient[i] * column[i];
+            }
         }
+
+        return sum;
     }
 
     /**
-     * Calculates the nth derivative of this <code>TensorFunction</code> instance
-     * with respect to a given mode.
+     * Computes the total derivative of this <code>TensorFunction</code> instance
+     * with respect to a given mode by summing over the products between the
+     * partial derivatives with respect to each of the arguments and the total
+     * derivatives of the arguments with respect to the mode.
      * 
      * @param mode <code>int</code>: The mode to differentiate along.
-     * @param n    <code>int</code>: The order of the derivative.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @param plan <code>DifferPlan</code>: The compiled plan of the inner
+     *             functions.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if a required derivative is undefined.
      */
-    @Override
-    public final TensorFunction differ(int mode, int n) {
+    private TensorFunction totalDiffer(int mode, DifferPlan plan) {
 
-        int[] dimensions = coeffs.getDimensions();
+        Truncation truncation = MatContext.getTruncation();
 
-        if (mode >= dimensions.length) {
+        TensorFunction[] tangentFuncs = new TensorFunction[getNumArgs()];
+        for (int i = 0; i < tangentFuncs.length; i++) {
 
-            return ZERO;
-        }
+            if (coeffs.getDimension(i) < 2) {
 
-        int degree = dimensions[mode] - 1;
-        if (degree < 1) {
+                tangentFuncs[i] = ZERO;
+                continue;
+            }
 
-            return ZERO;
+            tangentFuncs[i] = plan.derivative(i, mode, truncation);
+            if (tangentFuncs[i] == null) {
+
+                return null;
+            }
         }
 
-        Matrix D = differMat(degree, n);
-        return new TensorFunction(Tensor.modeProduct(D, coeffs, mode));
+        return gradient().dot(new VectorFunction(tangentFuncs), truncation);
     }
 
     /**
-     * Calculates the gradient of this <code>TensorFunction</code> instance.
-     * 
-     * @return <code>VectorFunction</code>: The calculated vector-valued function
-     *         representing the gradient.
+     * <code>int</code>: The maximum number of total derivative plans shared
+     * between every <code>TensorFunction</code> instance.
      */
-    public final VectorFunction gradient() {
+    private static final int PLAN_CAPACITY = 16;
+
+    /**
+     * <code>int</code>: The maximum number of truncations whose total derivatives
+     * are kept by each plan.
+     */
+    private static final int SWEEP_CAPACITY = 4;
+
+    /**
+     * <code>FunctionCache&lt;List&lt;TensorFunction&gt;, DifferPlan&gt;</code>:
+     * The total derivative plans previously compiled from each list of inner
+     * functions.
+     */
+    private static final FunctionCache<List<TensorFunction>, DifferPlan> PLANS = new FunctionCache<>(PLAN_CAPACITY);
+
+    /**
+     * <code>DifferPlan</code>: A class representing the compiled dependency graph
+     * of a list of inner functions. The variables are grouped into levels so that
+     * every variable follows the variables its function depends on, and the total
+     * derivatives with respect to each mode are found in a single sweep through
+     * the levels and kept. Variables within a level are independent of each
+     * other, so each level is swept in parallel.
+     */
+    private static final class DifferPlan {
+
+        /**
+         * <code>TensorFunction[]</code>: The inner function of each variable, or
+         * <code>null</code> if it is an independent variable.
+         */
+        private final TensorFunction[] inner;
+
+        /**
+         * <code>int[][]</code>: The variables each variable's function directly
+         * depends on, which are empty for independent variables.
+         */
+        private final int[][] args;
+
+        /**
+         * <code>int[][]</code>: The variables grouped into levels, where every
+         * variable depends only on variables in earlier levels.
+         */
+        private final int[][] levels;
 
-        TensorFunction[] derivs = new TensorFunction[getNumArgs()];
+        /**
+         * <code>boolean[][]</code>: Whether or not each variable depends, directly
+         * or through other variables, on each other variable.
+         */
+        private final boolean[][] reaches;
+
+        /**
+         * <code>FunctionCache&lt;Truncation, TensorFunction[][]&gt;</code>: The
+         * total derivatives of every variable with respect to each mode, kept
+         * separately for each truncation they were calculated under, where modes
+         * which have not been swept are <code>null</code>.
+         */
+        private final FunctionCache<Truncation, TensorFunction[][]> columns = new FunctionCache<>(SWEEP_CAPACITY);
 
-        for (int i = 0; i < derivs.length; i++) {
+        /**
+         * Creates a new instance of the <code>DifferPlan</code> class.
+         *
+         * @param inner   <code>TensorFunction[]</code>: The inner function of each
+         *                variable.
+         * @param args    <code>int[][]</code>: The direct dependencies of each
+         *                variable.
+         * @param levels  <code>int[][]</code>: The dependency levels of the
+         *                variables.
+         * @param reaches <code>boolean[][]</code>: The transitive dependencies of
+         *                each variable.
+         */
+        private DifferPlan(TensorFunction[] inner, int[][] args, int[][] levels, boolean[][] reaches) {
 
-            derivs[i] = differ(i, 1);
+            this.inner = inner;
+            this.args = args;
+            this.levels = levels;
+            this.reaches = reaches;
         }
 
-        return new VectorFunction(derivs);
-    }
+        /**
+         * Retrieves the shared plan of a list of inner functions, compiling it if
+         * it has not been compiled.
+         *
+         * @param inner <code>TensorFunction[]</code>: The inner functions.
+         * @return <code>DifferPlan</code>: The plan, or <code>null</code> if the
+         *         inner functions depend on each other in a cycle.
+         */
+        private static DifferPlan of(TensorFunction[] inner) {
 
-    /**
-     * Computes the total derivative of this <code>TensorFunction</code> instance,
-     * composed of the provided inner (auxilary) functions, with respect to a given
-     * mode.
-     * 
-     * @param mode  <code>int</code>: The mode to differentiate along. This mode may
-     *              be an inner function.
-     * @param inner <code>TensorFunction...</code>: The inner (auxilary) functions,
-     *              where the index corresponds to a given mode (variable index).
-     *              Inner functions which are left as <code>null</code> values or
-     *              which are excluded from the list are treated as independent
-     *              variables.
-     * @return <code>TensorFunction</code>: The calculated function, or the total
-     *         derivative of this <code>TensorFunction</code> instance.
-     */
-    public final TensorFunction totalDiffer(int mode, TensorFunction... inner) {
+            TensorFunction[] functions = inner.clone();
+            return PLANS.computeIfAbsent(Arrays.asList(functions), _ -> compile(functions));
+        }
 
-        List<Set<Integer>> dependencies = new ArrayList<>();
+        /**
+         * Compiles the dependency graph of a list of inner functions.
+         *
+         * @param inner <code>TensorFunction[]</code>: The inner functions.
+         * @return <code>DifferPlan</code>: The compiled plan, or <code>null</code>
+         *         if the inner functions depend on each other in a cycle.
+         */
+        private static DifferPlan compile(TensorFunction[] inner) {
+
+            int count = inner.length;
+            for (TensorFunction f : inner) {
+
+                if (f != null) {
 
-        // Iterate through all input functions to find dependency hierarchy.
-        for (int i = 0; i < inner.length; i++) {
+                    count = Math.max(count, f.getNumArgs());
+                }
+            }
 
-            TensorFunction func = inner[i];
-            HashSet<Integer> deps = new HashSet<>();
+            // Constant arguments are not dependencies.
+            int[][] args = new int[count][];
+            int[] fanOut = new int[count];
+            for (int v = 0; v < count; v++) {
 
-            // If the function is null, it is an independent variable.
-            if (func != null) {
+                TensorFunction f = v < inner.length ? inner[v] : null;
+                int n = f == null ? 0 : f.getNumArgs();
 
-                // Dimensions which are not constant are dependencies.
-                for (int dim = 0; dim < func.getNumArgs(); dim++) {
+                int size = 0;
+                args[v] = new int[n];
+                for (int i = 0; i < n; i++) {
 
-                    if (func.coeffs.getDimension(dim) > 1) {
+                    if (f.coeffs.getDimension(i) > 1) {
 
-                        deps.add(dim);
+                        args[v][size++] = i;
+                        fanOut[i]++;
                     }
                 }
+
+                args[v] = Arrays.copyOf(args[v], size);
             }
 
-            dependencies.add(i, deps);
-        }
+            int[][] dependents = new int[count][];
+            for (int u = 0; u < count; u++) {
 
-        HashSet<Integer> validated = new HashSet<>();
-        HashSet<Integer> seen = new HashSet<>();
+                dependents[u] = new int[fanOut[u]];
+                fanOut[u] = 0;
+            }
 
-        for (int i = 0; i < inner.length; i++) {
+            int[] pending = new int[count];
+            for (int v = 0; v < count; v++) {
 
-            if (!validateModeDependencies(i, dependencies, validated, seen)) {
+                pending[v] = args[v].length;
+                for (int u : args[v]) {
 
-                return null;
+                    dependents[u][fanOut[u]++] = v;
+                }
             }
-        }
 
-        for (int i = dependencies.size(); i <= mode; i++) {
+            // Release each variable once everything it depends on has been placed;
+            // any variable left unplaced lies on a cycle.
+            int[] order = new int[count];
+            int placed = 0;
+            for (int v = 0; v < count; v++) {
 
-            dependencies.add(new HashSet<>());
-        }
+                if (pending[v] == 0) {
 
-        HashMap<Integer, Map<Integer, TensorFunction>> computed = new HashMap<>();
-        return totalDiffer(mode, inner, dependencies, computed);
-    }
+                    order[placed++] = v;
+                }
+            }
 
-    /**
-     * Validates the dependency hierarchy at a given mode.
-     * 
-     * @param mode         <code>int</code>: The mode to validate.
-     * @param dependencies <code>List&lt;Set&lt;Integer&gt;&gt;</code>: The list of
-     *                     dependencies for each mode. Every set in the list
-     *                     describes the list of functions that the mode of that
-     *                     index is dependent on.
-     * @param validated    <code>Set&lt;Integer&gt;</code>: The set of modes which
-     *                     have already been validated.
-     * @param seen         <code>Set&lt;Integer&gt;</code>: The set of modes which
-     *                     have already been traced along in the current validation
-     *                     path. If a mode is repeated in this set, a cycle has been
-     *                     detected.
-     * @return <code>boolean</code>: Whether or not the mode hierarchy is valid.
-     */
-    private static boolean validateModeDependencies(int mode, List<Set<Integer>> dependencies, Set<Integer> validated,
-            Set<Integer> seen) {
+            for (int k = 0; k < placed; k++) {
 
-        // If the mode hierarchy has already been validated, return true.
-        if (validated.contains(mode)) {
+                for (int v : dependents[order[k]]) {
 
-            return true;
-        }
+                    if (--pending[v] == 0) {
 
-        // If the mode is out of bounds, it is an independent variable and has no
-        // dependencies.
-        if (dependencies.size() <= mode) {
+                        order[placed++] = v;
+                    }
+                }
+            }
 
-            for (int i = dependencies.size(); i <= mode; i++) {
+            if (placed < count) {
 
-                dependencies.add(new HashSet<>());
+                return null;
             }
-        }
 
-        // If the mode has already been seen but not validated, there is a cycle.
-        if (seen.contains(mode)) {
+            // Each variable sits one level past the deepest of its dependencies.
+            boolean[][] reaches = new boolean[count][count];
+            int[] depth = new int[count];
+            int[] widths = new int[count];
+            int height = 0;
+            for (int v : order) {
 
-            System.out.println("Cycle detected at mode " + mode);
-            return false;
-        }
+                for (int u : args[v]) {
 
-        seen.add(mode);
+                    reaches[v][u] = true;
+                    for (int w = 0; w < count; w++) {
 
-        // If the mode is not defined, it is an independent variable and has no
-        // dependencies.
-        if (dependencies.get(mode) == null) {
+                        reaches[v][w] |= reaches[u][w];
+                    }
 
-            dependencies.set(mode, new HashSet<>());
-        }
+                    depth[v] = Math.max(depth[v], depth[u] + 1);
+                }
+
+                widths[depth[v]]++;
+                height = Math.max(height, depth[v] + 1);
+            }
 
-        HashSet<Integer> newDeps = new HashSet<>();
+            int[][] levels = new int[height][];
+            for (int d = 0; d < height; d++) {
 
-        // Recursively validate all dependencies.
-        for (int i : dependencies.get(mode)) {
+                levels[d] = new int[widths[d]];
+                widths[d] = 0;
+            }
 
-            if (!validateModeDependencies(i, dependencies, validated, seen)) {
+            for (int v : order) {
 
-                return false;
+                levels[depth[v]][widths[depth[v]]++] = v;
             }
 
-            newDeps.addAll(dependencies.get(i));
+            return new DifferPlan(Arrays.copyOf(inner, count), args, levels, reaches);
         }
 
-        dependencies.get(mode).addAll(newDeps);
-
-        // Mark this node as validated.
-        seen.remove(mode);
-        validated.add(mode);
-        return true;
-    }
+        /**
+         * Retrieves the total derivative of one variable with respect to another.
+         *
+         * @param num        <code>int</code>: The variable to differentiate.
+         * @param denom      <code>int</code>: The variable to differentiate along.
+         * @param truncation <code>Truncation</code>: The truncation to apply.
+         * @return <code>TensorFunction</code>: The total derivative, or
+         *         <code>null</code> if it is undefined.
+         */
+        private TensorFunction derivative(int num, int denom, Truncation truncation) {
 
-    /**
-     * Computes the total derivative of this <code>TensorFunction</code> instance,
-     * composed of the provided inner (auxilary) functions, with respect to a given
-     * mode. This method assumes that the dependency hierarchy has already been
-     * validated and relies on a cache of previously computed derivatives.
-     * 
-     * @param mode         <code>int</code>: The mode to differentiate along. This
-     *                     mode may be an inner function.
-     * @param inner        <code>TensorFunction...</code>: The inner (auxilary)
-     *                     functions, where the index corresponds to a given mode
-     *                     (variable index). Inner functions which are left as
-     *                     <code>null</code> values or which are excluded from the
-     *                     list are treated as independent variables.
-     * @param dependencies <code>List&lt;Set&lt;Integer&gt;&gt;</code>: The list of
-     *                     dependencies for each mode. Every set in the list
-     *                     describes the list of functions that the mode of that
-     *                     index is dependent on.
-     * @param computed     <code>Map&lt;Integer, Map&lt;Integer, TensorFunction&gt;&gt;</code>:
-     *                     The set of previously computed total derivatives.
-     * @return <code>TensorFunction</code>: The calculated function, or the total
-     *         derivative of this <code>TensorFunction</code> instance.
-     */
-    private TensorFunction totalDiffer(int mode, TensorFunction[] inner,
-            List<Set<Integer>> dependencies, Map<Integer, Map<Integer, TensorFunction>> computed) {
-
-        VectorFunction gradient = gradient();
+            // dx/dx = 1
+            if (num == denom) {
 
-        TensorFunction[] tangentFuncs = new TensorFunction[getNumArgs()];
-        for (int i = 0; i < tangentFuncs.length; i++) {
+                return ONE;
+            }
 
-            if (coeffs.getDimension(i) < 2) {
+            // Variables outside of the graph are independent of every other variable.
+            if (num >= args.length || denom >= args.length) {
 
-                tangentFuncs[i] = ZERO;
-                continue;
+                return ZERO;
             }
 
-            tangentFuncs[i] = totalDifferIterate(i, mode, inner, dependencies, computed);
+            return column(denom, truncation)[num];
         }
 
-        VectorFunction tangent = new VectorFunction(tangentFuncs);
+        /**
+         * Retrieves the total derivatives of every variable with respect to a
+         * mode, sweeping the variables level by level if they have not been found.
+         *
+         * @param denom      <code>int</code>: The mode to differentiate along.
+         * @param truncation <code>Truncation</code>: The truncation to apply.
+         * @return <code>TensorFunction[]</code>: The total derivatives, where
+         *         undefined derivatives are <code>null</code>.
+         */
+        private synchronized TensorFunction[] column(int denom, Truncation truncation) {
+
+            // Derivatives found under one truncation are never reused under another.
+            // The truncation is passed to every entry explicitly, since the context's
+            // truncation belongs to the calling thread and the levels are swept on
+            // worker threads.
+            TensorFunction[][] swept = columns.computeIfAbsent(truncation, _ -> new TensorFunction[args.length][]);
 
-        return gradient.dot(tangent);
-    }
+            TensorFunction[] column = swept[denom];
+            if (column != null) {
 
-    /**
-     * Computes the total derivative of a given mode <code>num</code> with respect
-     * to another mode <code>denom</code> by summing over the products between the
-     * partial derivatives with respect to each of the arguments and the total
-     * derivatives of the arguments with respect to <code>denom</code>.
-     * 
-     * @param num          <code>int</code>: The mode to differentiate.
-     * @param denom        <code>int</code>: The mode to differentiate along. This
-     *                     should be a variable the <code>num</code> mode is
-     *                     dependent on.
-     * @param inner        <code>TensorFunction...</code>: The inner (auxilary)
-     *                     functions, where the index corresponds to a given mode
-     *                     (variable index). Inner functions which are left as
-     *                     <code>null</code> values or which are excluded from the
-     *                     list are treated as independent variables.
-     * @param dependencies <code>List&lt;Set&lt;Integer&gt;&gt;</code>: The list of
-     *                     dependencies for each mode. Every set in the list
-     *                     describes the list of functions that the mode of that
-     *                     index is dependent on.
-     * @param computed     <code>Map&lt;Integer, Map&lt;Integer, TensorFunction&gt;&gt;</code>:
-     *                     The set of previously computed total derivatives.
-     * @return <code>TensorFunction</code>: The calculated function, or the total
-     *         derivative of the <code>num</code> mode with respect to the
-     *         <code>denom</code> mode.
-     */
-    private static TensorFunction totalDifferIterate(int num, int denom, TensorFunction[] inner,
-            List<Set<Integer>> dependencies, Map<Integer, Map<Integer, TensorFunction>> computed) {
-
-        // dx/dx = 1
-        if (num == denom) {
+                return column;
+            }
 
-            return ONE;
-        }
+            // Reciprocals need the columns of the independent variables the
+            // denominator is in terms of, which are found before the sweep so that
+            // the parallel tasks only read them.
+            TensorFunction[][] reciprocals = new TensorFunction[args.length][];
+            for (int v = 0; v < args.length; v++) {
+
+                if (v != denom && args[v].length == 0 && reaches[denom][v]) {
 
-        Map<Integer, TensorFunction> computedNum = computed.computeIfAbsent(num, _ -> new HashMap<>());
-        if (computedNum.containsKey(denom)) {
+                    reciprocals[v] = column(v, truncation);
+                }
+            }
+
+            TensorFunction[] sweep = new TensorFunction[args.length];
+            for (int[] level : levels) {
+
+                IntStream range = IntStream.range(0, level.length);
+                (level.length > 1 ? range.parallel() : range)
+                        .forEach(k -> sweep[level[k]] = entry(level[k], denom, sweep, reciprocals, truncation));
+            }
 
-            return computedNum.get(denom);
+            swept[denom] = sweep;
+            return sweep;
         }
 
-        // If it is an independent variable, check if the denominator is in terms of the
-        // numerator.
-        if (dependencies.get(num).isEmpty()) {
+        /**
+         * Calculates the total derivative of a variable with respect to a mode,
+         * once every variable in earlier levels has been swept.
+         *
+         * @param v           <code>int</code>: The variable to differentiate.
+         * @param denom       <code>int</code>: The mode to differentiate along.
+         * @param column      <code>TensorFunction[]</code>: The total derivatives
+         *                    found so far.
+         * @param reciprocals <code>TensorFunction[][]</code>: The columns of the
+         *                    independent variables the mode is in terms of.
+         * @param truncation  <code>Truncation</code>: The truncation to apply.
+         * @return <code>TensorFunction</code>: The total derivative, or
+         *         <code>null</code> if it is undefined.
+         */
+        private TensorFunction entry(int v, int denom, TensorFunction[] column, TensorFunction[][] reciprocals,
+                Truncation truncation) {
+
+            if (v == denom) {
 
-            Map<Integer, TensorFunction> computedDenom = computed.computeIfAbsent(denom, _ -> new HashMap<>());
+                return ONE;
+            }
+
+            if (args[v].length > 0) {
 
-            // If they are independent of each other, the derivative of both is 0.
-            if (!dependencies.get(denom).contains(num)) {
+                return chain(v, column, truncation);
+            }
 
-                // Mark both derivatives as 0.
-                computedNum.put(denom, ZERO);
-                computedDenom.put(num, ZERO);
+            // If they are independent of each other, the derivative is 0.
+            if (reciprocals[v] == null) {
 
                 return ZERO;
             }
 
-            System.out.println("DENOM SWITCHED : d" + num + "/d" + denom + " -> d" + denom + "/d" + num);
-
-            // If the denominator is in terms of the numerator, the derivative is the
-            // reciprocal of the denominator's derivative with respect to the numerator.
-            // For example:
+            // If the denominator is in terms of the independent variable, the
+            // derivative is the reciprocal of the denominator's derivative with
+            // respect to the variable. For example:
             // y = f(x, t)
             // x is independent
             // dx/dy = 1 / (dy/dx)
             // = 1 / (∂y/∂x + ∂y/∂t * dt/dx)
-            // If t is independent of x, then dt/dx = 0 and dx/dy = 1 / (∂y/∂x)
+            TensorFunction prime = reciprocals[v][denom];
+            return prime == null ? null : ONE.divide(prime, truncation);
+        }
+
+        /**
+         * Calculates the total derivatives of every variable with respect to a mode
+         * at a point, sweeping the variables in dependency order.
+         *
+         * @param denom     <code>int</code>: The mode to differentiate along.
+         * @param point     <code>double[]</code>: The point to evaluate at.
+         * @param gradients <code>double[][]</code>: The gradients of the inner
+         *                  functions at the point calculated so far, which are
+         *                  shared between sweeps.
+         * @return <code>double[]</code>: The total derivatives, or
+         *         <code>null</code> if an inner function could not be evaluated.
+         */
+        private double[] columnAt(int denom, double[] point, double[][] gradients) {
 
-            // f is guaranteed to exist since it has num as a dependency.
-            TensorFunction f = inner[denom];
-            TensorFunction f_prime = f.totalDiffer(num, inner, dependencies, computed);
-            TensorFunction f_prime_recip = ONE.divide(f_prime);
-            computedNum.put(denom, f_prime_recip);
-            computedDenom.put(num, f_prime);
+            double[] column = new double[args.length];
+            for (int[] level : levels) {
 
-            return f_prime_recip;
+                for (int v : level) {
+
+                    if (v == denom) {
+
+                        column[v] = 1.0;
+                    } else if (args[v].length > 0) {
+
+                        if (gradients[v] == null) {
+
+                            double[] gradient = new double[inner[v].getNumArgs()];
+                            if (Double.isNaN(inner[v].applyWithGradient(point, gradient))) {
+
+                                return null;
+                            }
+
+                            gradients[v] = gradient;
+                        }
+
+                        double sum = 0.0;
+                        for (int i : args[v]) {
+
+                            sum += gradients[v][i] * column[i];
+                        }
+
+                        column[v] = sum;
+                    } else if (reaches[denom][v]) {
+
+                        double[] reciprocal = columnAt(v, point, gradients);
+                        if (reciprocal == null) {
+
+                            return null;
+                        }
+
+                        column[v] = 1.0 / reciprocal[denom];
+                    }
+                }
+            }
+
+            return column;
         }
 
-        TensorFunction f = inner[num];
+        /**
+         * Applies the chain rule to the function of a dependent variable, using the
+         * total derivatives already found for its dependencies.
+         *
+         * @param v      <code>int</code>: The variable to differentiate.
+         * @param column     <code>TensorFunction[]</code>: The total derivatives
+         *                   found so far.
+         * @param truncation <code>Truncation</code>: The truncation to apply.
+         * @return <code>TensorFunction</code>: The total derivative, or
+         *         <code>null</code> if it is undefined.
+         */
+        private TensorFunction chain(int v, TensorFunction[] column, Truncation truncation) {
+
+            TensorFunction f = inner[v];
+            TensorFunction[] tangentFuncs = new TensorFunction[f.getNumArgs()];
+            Arrays.fill(tangentFuncs, ZERO);
+            for (int i : args[v]) {
+
+                tangentFuncs[i] = column[i];
+                if (tangentFuncs[i] == null) {
+
+                    return null;
+                }
+            }
 
-        TensorFunction f_prime = f.totalDiffer(denom, inner, dependencies, computed);
-        computedNum.put(denom, f_prime);
-        return f_prime;
+            return f.gradient().dot(new VectorFunction(tangentFuncs), truncation);
+        }
     }
 
     /**
@@ -1534,22 +5950,22 @@ public final class TensorFunction extends MatFunction<MatNumber> {
      * 
      * @param mode <code>int</code>: The mode to integrate along.
      * @param n    <code>int</code>: The order of the integral.
-     * @return <code>TensorFunction</code>: The calculated function.
+     * @return <code>TensorFunction</code>: The calculated function, or
+     *         <code>null</code> if the mode is beyond the arguments of this
+     *         <code>TensorFunction</code> instance or the order is negative.
      */
     @Override
     public final TensorFunction integ(int mode, int n) {
 
         int[] dimensions = coeffs.getDimensions();
 
-        if (mode >= dimensions.length) {
+        if (mode >= dimensions.length || n < 0) {
 
             return null;
         }
 
-        int degree = dimensions[mode] - 1;
-
-        Matrix I = integMat(degree, n);
-        return new TensorFunction(Tensor.modeProduct(I, coeffs, mode));
+        return (TensorFunction) derived().computeIfAbsent(new Derivation(INTEG, mode, n),
+                _ -> transform(CalculusOperator.IDENTITY.integ(mode, n)));
     }
 
     /**
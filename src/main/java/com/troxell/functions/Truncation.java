@@ -0,0 +1,259 @@
+package com.troxell.functions;
+
+import java.util.Arrays;
+
+/**
+ * <code>Truncation</code>: A class representing a cap on the degrees of the
+ * terms kept by polynomial arithmetic. A term is kept only if its total degree
+ * is at most the total cap and its degree in each variable is at most that
+ * variable's cap, so a truncated product, power or composition never calculates
+ * or stores the terms beyond the caps. Truncated arithmetic is exact up to the
+ * caps, which makes it suited to Taylor series whose higher terms are discarded
+ * anyway.
+ */
+public final class Truncation {
+
+    /**
+     * <code>Truncation</code>: The truncation which keeps every term.
+     */
+    public static final Truncation NONE = new Truncation(Integer.MAX_VALUE, new int[0]);
+
+    /**
+     * <code>int</code>: The maximum total degree of a kept term, or
+     * <code>Integer.MAX_VALUE</code> if it is uncapped.
+     */
+    private final int total;
+
+    /**
+     * <code>int[]</code>: The maximum degree of a kept term in each variable,
+     * where variables beyond the array are uncapped.
+     */
+    private final int[] degrees;
+
+    /**
+     * Creates a new instance of the <code>Truncation</code> class.
+     *
+     * @param total   <code>int</code>: The maximum total degree of a kept term.
+     * @param degrees <code>int[]</code>: The maximum degree of a kept term in each
+     *                variable.
+     */
+    private Truncation(int total, int[] degrees) {
+
+        this.total = total;
+        this.degrees = degrees;
+    }
+
+    /**
+     * Creates a truncation which caps the total degree of each term.
+     *
+     * @param degree <code>int</code>: The maximum total degree of a kept term.
+     * @return <code>Truncation</code>: The created truncation, or
+     *         <code>null</code> if the degree is negative.
+     */
+    public static final Truncation total(int degree) {
+
+        if (degree < 0) {
+
+            return null;
+        }
+
+        return new Truncation(degree, new int[0]);
+    }
+
+    /**
+     * Creates a truncation which caps the degree of each term in each variable.
+     *
+     * @param degrees <code>int...</code>: The maximum degree of a kept term in
+     *                each variable, where a negative degree leaves that variable
+     *                uncapped.
+     * @return <code>Truncation</code>: The created truncation.
+     */
+    public static final Truncation perVariable(int... degrees) {
+
+        int[] caps = new int[degrees.length];
+        for (int i = 0; i < degrees.length; i++) {
+
+            caps[i] = degrees[i] < 0 ? Integer.MAX_VALUE : degrees[i];
+        }
+
+        return new Truncation(Integer.MAX_VALUE, caps);
+    }
+
+    /**
+     * Creates a truncation which additionally caps the total degree of each term.
+     *
+     * @param degree <code>int</code>: The maximum total degree of a kept term.
+     * @return <code>Truncation</code>: The created truncation, or
+     *         <code>null</code> if the degree is negative.
+     */
+    public final Truncation withTotal(int degree) {
+
+        if (degree < 0) {
+
+            return null;
+        }
+
+        return new Truncation(Math.min(total, degree), degrees);
+    }
+
+    /**
+     * Creates the truncation which keeps a term exactly when this truncation
+     * keeps its product with a monomial.
+     *
+     * @param exponents <code>int[]</code>: The exponents of the monomial in each
+     *                  variable.
+     * @return <code>Truncation</code>: The created truncation, or
+     *         <code>null</code> if this truncation keeps no multiple of the
+     *         monomial.
+     */
+    public final Truncation shift(int[] exponents) {
+
+        int degree = 0;
+        int[] caps = Arrays.copyOf(degrees, Math.max(degrees.length, exponents.length));
+        for (int i = 0; i < caps.length; i++) {
+
+            int exponent = i < exponents.length ? exponents[i] : 0;
+            if (i >= degrees.length) {
+
+                caps[i] = Integer.MAX_VALUE;
+            } else if (caps[i] != Integer.MAX_VALUE) {
+
+                caps[i] -= exponent;
+            }
+
+            if (caps[i] < 0) {
+
+                return null;
+            }
+
+            degree += exponent;
+        }
+
+        if (total == Integer.MAX_VALUE) {
+
+            return new Truncation(total, caps);
+        }
+
+        return total < degree ? null : new Truncation(total - degree, caps);
+    }
+
+    /**
+     * Determines whether or not this <code>Truncation</code> instance keeps every
+     * term.
+     *
+     * @return <code>boolean</code>: Whether or not every term is kept.
+     */
+    public final boolean isNone() {
+
+        if (total != Integer.MAX_VALUE) {
+
+            return false;
+        }
+
+        for (int degree : degrees) {
+
+            if (degree != Integer.MAX_VALUE) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Retrieves the maximum total degree of a kept term.
+     *
+     * @return <code>int</code>: The maximum total degree, or
+     *         <code>Integer.MAX_VALUE</code> if it is uncapped.
+     */
+    public final int getTotal() {
+
+        return total;
+    }
+
+    /**
+     * Retrieves the maximum degree of a kept term in a variable.
+     *
+     * @param mode <code>int</code>: The variable to retrieve the cap of.
+     * @return <code>int</code>: The maximum degree, or
+     *         <code>Integer.MAX_VALUE</code> if it is uncapped.
+     */
+    public final int getDegree(int mode) {
+
+        int degree = mode < degrees.length ? degrees[mode] : Integer.MAX_VALUE;
+        return Math.min(degree, total);
+    }
+
+    /**
+     * Limits a set of coefficient tensor dimensions to the degrees which may be
+     * kept.
+     *
+     * @param dims <code>int[]</code>: The dimensions to limit.
+     * @return <code>int[]</code>: The limited dimensions.
+     */
+    public final int[] limit(int[] dims) {
+
+        int[] newDims = new int[dims.length];
+        for (int i = 0; i < dims.length; i++) {
+
+            int degree = getDegree(i);
+            newDims[i] = degree < dims[i] - 1 ? degree + 1 : dims[i];
+        }
+
+        return newDims;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+
+        if (!(obj instanceof Truncation t)) {
+
+            return false;
+        }
+
+        int length = Math.max(degrees.length, t.degrees.length);
+        for (int i = 0; i < length; i++) {
+
+            if (getDegree(i) != t.getDegree(i)) {
+
+                return false;
+            }
+        }
+
+        return total == t.total;
+    }
+
+    @Override
+    public final int hashCode() {
+
+        // Trailing uncapped variables do not change the truncation.
+        int length = degrees.length;
+        while (length > 0 && getDegree(length - 1) == total) {
+
+            length--;
+        }
+
+        int[] caps = new int[length];
+        for (int i = 0; i < length; i++) {
+
+            caps[i] = getDegree(i);
+        }
+
+        return 31 * total + Arrays.hashCode(caps);
+    }
+
+    @Override
+    public final String toString() {
+
+        StringBuilder s = new StringBuilder("Truncation[total=");
+        s.append(total == Integer.MAX_VALUE ? "none" : total);
+        for (int i = 0; i < degrees.length; i++) {
+
+            s.append(", ").append(i).append('=');
+            s.append(degrees[i] == Integer.MAX_VALUE ? "none" : degrees[i]);
+        }
+
+        return s.append(']').toString();
+    }
+}
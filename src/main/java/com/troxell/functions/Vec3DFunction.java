@@ -3,6 +3,7 @@ package com.troxell.functions;
 import java.util.Arrays;
 import java.util.List;
 
+import com.troxell.MatContext;
 import com.troxell.mat.Vector;
 import com.troxell.numbers.MatNumber;
 
@@ -92,9 +93,117 @@ public final class Vec3DFunction extends MatFunction<Vector> {
         return new Vec3DFunction(x.integ(mode, n), y.integ(mode, n), z.integ(mode, n));
     }
 
+    /**
+     * Computes the dot product between this <code>Vec3DFunction</code> instance
+     * and another. The three products are accumulated into a single result, so
+     * none of them is formed on its own.
+     *
+     * @param f <code>Vec3DFunction</code>: The function to multiply by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
     public final TensorFunction dot(Vec3DFunction f) {
 
-        return x.multiply(f.x).add(y.multiply(f.y)).add(z.multiply(f.z));
+        return TensorFunction.sumProducts(new TensorFunction[] { x, y, z }, new TensorFunction[] { f.x, f.y, f.z },
+                new double[] { 1.0, 1.0, 1.0 }, MatContext.getTruncation());
+    }
+
+    /**
+     * Computes the cross product between this <code>Vec3DFunction</code> instance
+     * and another. Both products of each component are accumulated into a single
+     * result, so neither is formed on its own.
+     *
+     * @param f <code>Vec3DFunction</code>: The function to multiply by.
+     * @return <code>Vec3DFunction</code>: The calculated function.
+     */
+    public final Vec3DFunction cross(Vec3DFunction f) {
+
+        return new Vec3DFunction(difference(y, f.z, z, f.y), difference(z, f.x, x, f.z),
+                difference(x, f.y, y, f.x));
+    }
+
+    /**
+     * Computes the difference <code>ab - cd</code> between two products.
+     *
+     * @param a <code>TensorFunction</code>: The first factor of the first product.
+     * @param b <code>TensorFunction</code>: The second factor of the first product.
+     * @param c <code>TensorFunction</code>: The first factor of the second product.
+     * @param d <code>TensorFunction</code>: The second factor of the second
+     *          product.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    private static TensorFunction difference(TensorFunction a, TensorFunction b, TensorFunction c,
+            TensorFunction d) {
+
+        return TensorFunction.sumProducts(new TensorFunction[] { a, c }, new TensorFunction[] { b, d },
+                new double[] { 1.0, -1.0 }, MatContext.getTruncation());
+    }
+
+    /**
+     * Calculates the cross product between this <code>Vec3DFunction</code>
+     * instance and another at a point, without constructing the symbolic product.
+     *
+     * @param f     <code>Vec3DFunction</code>: The function to multiply by.
+     * @param point <code>double...</code>: The point to evaluate at.
+     * @return <code>double[]</code>: The three components of the product, which
+     *         are <code>NaN</code> if there are not enough provided arguments or
+     *         the coefficients are not real.
+     */
+    public final double[] crossAt(Vec3DFunction f, double... point) {
+
+        double ux = x.applyReal(point), uy = y.applyReal(point), uz = z.applyReal(point);
+        double vx = f.x.applyReal(point), vy = f.y.applyReal(point), vz = f.z.applyReal(point);
+
+        return new double[] { uy * vz - uz * vy, uz * vx - ux * vz, ux * vy - uy * vx };
+    }
+
+    /**
+     * Calculates the curl of this <code>Vec3DFunction</code> instance, treating
+     * its first three arguments as <code>x</code>, <code>y</code> and
+     * <code>z</code>. Both partial derivatives of each component are gathered into
+     * a single pass over the coefficients of the result, so neither is formed on
+     * its own.
+     *
+     * @return <code>Vec3DFunction</code>: The calculated function.
+     */
+    public final Vec3DFunction curl() {
+
+        return new Vec3DFunction(rotation(z, 1, y, 2), rotation(x, 2, z, 0), rotation(y, 0, x, 1));
+    }
+
+    /**
+     * Calculates the difference between the partial derivatives of two
+     * functions.
+     *
+     * @param a     <code>TensorFunction</code>: The function whose derivative is
+     *              added.
+     * @param aMode <code>int</code>: The mode to differentiate <code>a</code>
+     *              along.
+     * @param b     <code>TensorFunction</code>: The function whose derivative is
+     *              subtracted.
+     * @param bMode <code>int</code>: The mode to differentiate <code>b</code>
+     *              along.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    private static TensorFunction rotation(TensorFunction a, int aMode, TensorFunction b, int bMode) {
+
+        return TensorFunction.sumPartials(new TensorFunction[] { a, b }, new int[] { aMode, bMode },
+                new int[] { 1, 1 }, new double[] { 1.0, -1.0 });
+    }
+
+    /**
+     * Calculates the curl of this <code>Vec3DFunction</code> instance at a point,
+     * without constructing any derivative functions.
+     *
+     * @param point <code>double...</code>: The point to evaluate at.
+     * @return <code>double[]</code>: The three components of the curl, which are
+     *         <code>NaN</code> if there are not enough provided arguments or the
+     *         coefficients are not real.
+     */
+    public final double[] curlAt(double... point) {
+
+        return new double[] { z.derivativeAt(1, point) - y.derivativeAt(2, point),
+                x.derivativeAt(2, point) - z.derivativeAt(0, point),
+                y.derivativeAt(0, point) - x.derivativeAt(1, point) };
     }
 
     @Override
@@ -2,18 +2,48 @@ package com.troxell.functions;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import com.troxell.MatContext;
 import com.troxell.mat.Vector;
 import com.troxell.numbers.MatNumber;
 
+/**
+ * <code>VectorFunction</code>: A class representing a vector-valued function.
+ * Its components may be held as separate functions, or stacked into a single
+ * function with an additional, final mode indexing the components; each form
+ * is built from the other on first use. Evaluation, differentiation,
+ * integration and scaling act on the stacked form, so they are a single pass
+ * over one coefficient tensor and the powers of each argument are applied once
+ * for every component.
+ */
 public final class VectorFunction extends MatFunction<Vector> {
 
-    private final TensorFunction[] functions;
+    /**
+     * <code>TensorFunction[]</code>: The components of this
+     * <code>VectorFunction</code> instance, or <code>null</code> if they have
+     * not yet been extracted from the stacked form.
+     */
+    private volatile TensorFunction[] functions;
+
+    /**
+     * <code>TensorFunction</code>: The components of this
+     * <code>VectorFunction</code> instance stacked along a final mode, or
+     * <code>null</code> if it has not yet been built.
+     */
+    private volatile TensorFunction stacked;
+
+    /**
+     * <code>int[][]</code>: The dimensions of each component, or
+     * <code>null</code> for components which are <code>ZERO</code>.
+     */
+    private final int[][] dims;
 
     public final int size() {
 
-        return functions.length;
+        return dims.length;
     }
 
     private final int numArgs;
@@ -31,21 +61,134 @@ public final class VectorFunction extends MatFunction<Vector> {
         return numArgs;
     }
 
+    /**
+     * Creates a new instance of the <code>VectorFunction</code> class.
+     *
+     * @param functions <code>TensorFunction...</code>: The components.
+     * @throws IllegalArgumentException if any component is <code>null</code>,
+     *                                  such as the result of a failed parse.
+     */
     public VectorFunction(TensorFunction... functions) {
 
         this.functions = functions;
 
+        dims = new int[functions.length][];
+        for (int i = 0; i < functions.length; i++) {
+
+            if (functions[i] == null) {
+
+                throw new IllegalArgumentException("Component " + i + " of a VectorFunction is null.");
+            }
+
+            dims[i] = functions[i] == TensorFunction.ZERO ? null : functions[i].dimensions();
+        }
+
+        numArgs = numArgs(dims);
+    }
+
+    /**
+     * Creates a new instance of the <code>VectorFunction</code> class from its
+     * stacked form.
+     *
+     * @param stacked <code>TensorFunction</code>: The components stacked along a
+     *                final mode.
+     * @param dims    <code>int[][]</code>: The dimensions of each component, or
+     *                <code>null</code> for components which are
+     *                <code>ZERO</code>.
+     */
+    private VectorFunction(TensorFunction stacked, int[][] dims) {
+
+        this.stacked = stacked;
+        this.dims = dims;
+
+        numArgs = numArgs(dims);
+    }
+
+    /**
+     * Calculates the number of arguments of a set of components.
+     *
+     * @param dims <code>int[][]</code>: The dimensions of each component.
+     * @return <code>int</code>: The largest number of dimensions of any
+     *         component.
+     */
+    private static int numArgs(int[][] dims) {
+
         int length = 0;
 
-        for (TensorFunction f : functions) {
+        for (int[] d : dims) {
 
-            if (f.getNumArgs() > length) {
+            if (d != null && d.length > length) {
 
-                length = f.getNumArgs();
+                length = d.length;
             }
         }
 
-        numArgs = length;
+        return length;
+    }
+
+    /**
+     * Retrieves the components of this <code>VectorFunction</code> instance,
+     * extracting them from the stacked form if necessary.
+     *
+     * @return <code>TensorFunction[]</code>: The components.
+     */
+    private TensorFunction[] components() {
+
+        TensorFunction[] f = functions;
+        if (f == null) {
+
+            f = new TensorFunction[dims.length];
+            for (int i = 0; i < f.length; i++) {
+
+                f[i] = dims[i] == null ? TensorFunction.ZERO : stacked.unstack(i, dims[i]);
+            }
+
+            functions = f;
+        }
+
+        return f;
+    }
+
+    /**
+     * Retrieves the stacked form of this <code>VectorFunction</code> instance,
+     * building it if necessary. Each component is padded to the largest degree
+     * along each mode of any component.
+     *
+     * @return <code>TensorFunction</code>: The components stacked along a final
+     *         mode.
+     */
+    private TensorFunction stacked() {
+
+        TensorFunction s = stacked;
+        if (s == null) {
+
+            s = TensorFunction.stack(functions, dims, common());
+            stacked = s;
+        }
+
+        return s;
+    }
+
+    /**
+     * Calculates the dimensions every component is padded to in the stacked
+     * form.
+     *
+     * @return <code>int[]</code>: The largest dimension along each mode of any
+     *         component.
+     */
+    private int[] common() {
+
+        int[] common = new int[numArgs];
+        Arrays.fill(common, 1);
+        for (int[] d : dims) {
+
+            for (int i = 0; d != null && i < d.length; i++) {
+
+                common[i] = Math.max(common[i], d[i]);
+            }
+        }
+
+        return common;
     }
 
     public static final VectorFunction parse(String definition) {
@@ -71,81 +214,254 @@ public final class VectorFunction extends MatFunction<Vector> {
         TensorFunction[] functions = Arrays.stream(expression.split(",")).map(s -> TensorFunction.parse(params, s))
                 .toArray(TensorFunction[]::new);
 
+        if (Arrays.asList(functions).contains(null)) {
+
+            return null;
+        }
+
         return new VectorFunction(functions);
     }
 
     @Override
     public final Vector apply(double... args) {
 
-        MatNumber[] vals = new MatNumber[functions.length];
-        for (int i = 0; i < functions.length; i++) {
-
-            vals[i] = functions[i].apply(args);
-        }
-
-        return new Vector(vals);
+        return apply(new Vector(args));
     }
 
     @Override
     public final Vector apply(MatNumber... args) {
 
-        MatNumber[] vals = new MatNumber[functions.length];
-        for (int i = 0; i < functions.length; i++) {
-
-            vals[i] = functions[i].apply(args);
-        }
-
-        return new Vector(vals);
+        return apply(new Vector(args));
     }
 
+    /**
+     * Applies a vector of arguments to this <code>VectorFunction</code>
+     * instance. Every component is evaluated in a single pass over the stacked
+     * form.
+     * 
+     * @param args <code>Vector</code>: The arguments to apply.
+     * @return <code>Vector</code>: The resulting values, where components which
+     *         have too few provided arguments are <code>null</code>.
+     */
     @Override
     public final Vector apply(Vector args) {
 
-        MatNumber[] vals = new MatNumber[functions.length];
-        for (int i = 0; i < functions.length; i++) {
+        if (args.getSize() >= numArgs && dims.length > 0) {
+
+            return new Vector(stacked().applyLeading(args));
+        }
+
+        TensorFunction[] f = components();
+        MatNumber[] vals = new MatNumber[f.length];
+        for (int i = 0; i < f.length; i++) {
 
-            vals[i] = functions[i].apply(args);
+            vals[i] = f[i].apply(args);
         }
 
         return new Vector(vals);
     }
 
+    /**
+     * Calculates the nth derivative of this <code>VectorFunction</code> instance
+     * with respect to a given mode, as a single pass over the stacked form.
+     * 
+     * @param mode <code>int</code>: The mode to differentiate along.
+     * @param n    <code>int</code>: The order of the derivative.
+     * @return <code>VectorFunction</code>: The calculated function, or
+     *         <code>null</code> if the order is negative.
+     */
     @Override
     public final VectorFunction differ(int mode, int n) {
 
-        TensorFunction[] primes = new TensorFunction[size()];
-        for (int i = 0; i < primes.length; i++) {
+        if (n < 0) {
 
-            primes[i] = functions[i].differ(mode, n);
+            return null;
         }
 
-        return new VectorFunction(primes);
+        // Components which are constant along the mode, or whose degree is below
+        // the order, become ZERO.
+        int[][] newDims = new int[dims.length][];
+        boolean zero = true;
+        for (int i = 0; i < dims.length; i++) {
+
+            int[] d = dims[i];
+            if (d != null && mode < d.length && d[mode] > 1 && d[mode] > n) {
+
+                newDims[i] = d.clone();
+                newDims[i][mode] -= n;
+                zero = false;
+            }
+        }
+
+        if (zero) {
+
+            TensorFunction[] primes = new TensorFunction[dims.length];
+            Arrays.fill(primes, TensorFunction.ZERO);
+            return new VectorFunction(primes);
+        }
+
+        return new VectorFunction(stacked().transform(CalculusOperator.IDENTITY.differ(mode, n)), newDims);
     }
 
+    /**
+     * Calculates the nth integral of this <code>VectorFunction</code> instance
+     * with respect to a given mode, as a single pass over the stacked form.
+     * Components which are <code>ZERO</code> remain <code>ZERO</code>.
+     * 
+     * @param mode <code>int</code>: The mode to integrate along.
+     * @param n    <code>int</code>: The order of the integral.
+     * @return <code>VectorFunction</code>: The calculated function, or
+     *         <code>null</code> if the order is negative or the integral of any
+     *         other component is undefined.
+     */
     @Override
     public final VectorFunction integ(int mode, int n) {
 
-        TensorFunction[] primes = new TensorFunction[size()];
-        for (int i = 0; i < primes.length; i++) {
+        if (n < 0 || dims.length == 0) {
+
+            return null;
+        }
+
+        int[][] newDims = new int[dims.length][];
+        boolean zero = true;
+        for (int i = 0; i < dims.length; i++) {
+
+            // The integral of 0 is 0.
+            if (dims[i] == null) {
+
+                continue;
+            }
+
+            // Integrals beyond the arguments of a component are undefined.
+            if (mode >= dims[i].length) {
+
+                return null;
+            }
 
-            primes[i] = functions[i].integ(mode, n);
+            newDims[i] = dims[i].clone();
+            newDims[i][mode] += n;
+            zero = false;
         }
 
-        return new VectorFunction(primes);
+        if (zero) {
+
+            TensorFunction[] primes = new TensorFunction[dims.length];
+            Arrays.fill(primes, TensorFunction.ZERO);
+            return new VectorFunction(primes);
+        }
+
+        return new VectorFunction(stacked().transform(CalculusOperator.IDENTITY.integ(mode, n)), newDims);
+    }
+
+    /**
+     * Retrieves a component of this <code>VectorFunction</code> instance.
+     *
+     * @param index <code>int</code>: The index of the component.
+     * @return <code>TensorFunction</code>: The retrieved function.
+     */
+    public final TensorFunction get(int index) {
+
+        return components()[index];
+    }
+
+    /**
+     * Calculates the Jacobian of this <code>VectorFunction</code> instance. Each
+     * row is the gradient of one component, calculated in a single sweep over
+     * that component's coefficients, and partial derivatives with respect to
+     * arguments beyond those of a component are <code>ZERO</code>.
+     *
+     * @return <code>MatrixFunction</code>: The calculated matrix-valued function,
+     *         where the entry at row <code>i</code> and column <code>j</code> is
+     *         the partial derivative of the ith component with respect to the jth
+     *         argument.
+     */
+    public final MatrixFunction jacobian() {
+
+        TensorFunction[] f = components();
+        TensorFunction[] entries = new TensorFunction[f.length * numArgs];
+        Arrays.fill(entries, TensorFunction.ZERO);
+        for (int i = 0; i < f.length; i++) {
+
+            TensorFunction[] gradient = f[i].gradient().components();
+            System.arraycopy(gradient, 0, entries, i * numArgs, gradient.length);
+        }
+
+        return MatrixFunction.of(f.length, numArgs, entries);
     }
 
+    /**
+     * Calculates the dot product between this <code>VectorFunction</code>
+     * instance and another. Every product of a pair of components is accumulated
+     * directly into one result sized for the largest of them, so no product is
+     * formed on its own and no partial sum is resized.
+     *
+     * @param f <code>VectorFunction</code>: The function to multiply by.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
     public final TensorFunction dot(VectorFunction f) {
 
-        TensorFunction sum = TensorFunction.ZERO;
+        return dot(f, MatContext.getTruncation());
+    }
+
+    /**
+     * Calculates the dot product between this <code>VectorFunction</code>
+     * instance and another, keeping only the terms within a truncation.
+     *
+     * @param f          <code>VectorFunction</code>: The function to multiply by.
+     * @param truncation <code>Truncation</code>: The truncation to apply.
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction dot(VectorFunction f, Truncation truncation) {
 
-        for (int i = 0; i < functions.length && i < f.functions.length; i++) {
+        TensorFunction[] functions = components();
+        TensorFunction[] other = f.components();
 
-            if (functions[i] == TensorFunction.ZERO || f.functions[i] == TensorFunction.ZERO) {
+        int length = Math.min(functions.length, other.length);
+        double[] scales = new double[length];
+        Arrays.fill(scales, 1.0);
 
-                continue;
-            }
+        return TensorFunction.sumProducts(Arrays.copyOf(functions, length), Arrays.copyOf(other, length), scales,
+                truncation);
+    }
 
-            sum = sum.add(functions[i].multiply(f.functions[i]));
+    /**
+     * Calculates the divergence of this <code>VectorFunction</code> instance,
+     * which is the sum of the partial derivative of each component with respect
+     * to the argument of the same index. The derivatives are gathered into a
+     * single pass over the coefficients of the result, so none of them are formed
+     * on their own.
+     *
+     * @return <code>TensorFunction</code>: The calculated function.
+     */
+    public final TensorFunction divergence() {
+
+        TensorFunction[] f = components();
+
+        int[] orders = new int[f.length];
+        double[] scales = new double[f.length];
+        Arrays.fill(orders, 1);
+        Arrays.fill(scales, 1.0);
+
+        return TensorFunction.sumPartials(f, IntStream.range(0, f.length).toArray(), orders, scales);
+    }
+
+    /**
+     * Calculates the divergence of this <code>VectorFunction</code> instance at a
+     * point, without constructing any derivative functions.
+     *
+     * @param point <code>double...</code>: The point to evaluate at.
+     * @return <code>double</code>: The resulting value, or <code>NaN</code> if
+     *         there are not enough provided arguments or the coefficients are not
+     *         real.
+     */
+    public final double divergenceAt(double... point) {
+
+        TensorFunction[] f = components();
+
+        double sum = 0.0;
+        for (int i = 0; i < f.length; i++) {
+
+            sum += f[i].derivativeAt(i, point);
         }
 
         return sum;
@@ -154,42 +470,90 @@ public final class VectorFunction extends MatFunction<Vector> {
     @Override
     public final String toString() {
 
-        return "<" + Arrays.stream(functions).map(TensorFunction::toString).collect(Collectors.joining(", ")) + ">";
+        return "<" + Arrays.stream(components()).map(TensorFunction::toString).collect(Collectors.joining(", "))
+                + ">";
     }
 
     @Override
-    public MatFunction<Vector> multiply(TensorFunction function) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'multiply'");
+    public final VectorFunction multiply(TensorFunction function) {
+
+        return map(f -> f.multiply(function));
     }
 
     @Override
-    public MatFunction<Vector> multiply(double scalar) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'multiply'");
+    public final VectorFunction multiply(double scalar) {
+
+        return scale(f -> f.multiply(scalar));
     }
 
     @Override
-    public MatFunction<Vector> multiply(MatNumber scalar) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'multiply'");
+    public final VectorFunction multiply(MatNumber scalar) {
+
+        return scale(f -> f.multiply(scalar));
     }
 
     @Override
-    public MatFunction<Vector> divide(TensorFunction function) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'divide'");
+    public final VectorFunction divide(TensorFunction function) {
+
+        return map(f -> f.divide(function));
     }
 
     @Override
-    public MatFunction<Vector> divide(double scalar) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'divide'");
+    public final VectorFunction divide(double scalar) {
+
+        return scale(f -> f.divide(scalar));
     }
 
     @Override
-    public MatFunction<Vector> divide(MatNumber scalar) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'divide'");
+    public final VectorFunction divide(MatNumber scalar) {
+
+        return scale(f -> f.divide(scalar));
+    }
+
+    /**
+     * Applies an operation to every component of this
+     * <code>VectorFunction</code> instance.
+     *
+     * @param operation <code>UnaryOperator&lt;TensorFunction&gt;</code>: The
+     *                  operation to apply.
+     * @return <code>VectorFunction</code>: The calculated function, or
+     *         <code>null</code> if the operation failed for any component.
+     */
+    private VectorFunction map(UnaryOperator<TensorFunction> operation) {
+
+        TensorFunction[] f = components();
+        TensorFunction[] mapped = new TensorFunction[f.length];
+        for (int i = 0; i < f.length; i++) {
+
+            mapped[i] = operation.apply(f[i]);
+            if (mapped[i] == null) {
+
+                return null;
+            }
+        }
+
+        return new VectorFunction(mapped);
+    }
+
+    /**
+     * Scales every component of this <code>VectorFunction</code> instance at
+     * once by applying a scaling operation to the stacked form. Components which
+     * are <code>ZERO</code> stay <code>ZERO</code>.
+     *
+     * @param operation <code>UnaryOperator&lt;TensorFunction&gt;</code>: The
+     *                  scaling operation, which must keep the dimensions of its
+     *                  function.
+     * @return <code>VectorFunction</code>: The calculated function, or
+     *         <code>null</code> if the operation failed.
+     */
+    private VectorFunction scale(UnaryOperator<TensorFunction> operation) {
+
+        if (dims.length == 0) {
+
+            return this;
+        }
+
+        TensorFunction scaled = operation.apply(stacked());
+        return scaled == null ? null : new VectorFunction(scaled, dims);
     }
 }
@@ -0,0 +1,557 @@
+package com.troxell.mat;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <code>Convolution</code>: A class containing algorithms for the linear
+ * convolution of real sequences, which is the product of the univariate
+ * polynomials whose coefficients they are. Short sequences are multiplied
+ * directly, medium sequences through Karatsuba's algorithm and long sequences
+ * through the fast Fourier transform, with crossover lengths which may be
+ * recalibrated for a given machine.
+ */
+public final class Convolution {
+
+    /**
+     * <code>double</code>: The tolerance within which the fast algorithms agree
+     * with the schoolbook algorithm. Every coefficient of a fast convolution of
+     * <code>a</code> and <code>b</code> is within
+     * <code>TOLERANCE * max|a| * max|b| * min(a.length, b.length)</code> of the
+     * exact value, and coefficients smaller than this are returned as
+     * <code>0.0</code>.
+     */
+    public static final double TOLERANCE = 1e-12;
+
+    /**
+     * <code>double</code>: The largest ratio between the largest and smallest
+     * non-zero magnitudes in a sequence for which the fast algorithms are
+     * recommended. Sequences with a wider range, such as the coefficients of a
+     * Taylor series, lose their smallest coefficients to rounding in the fast
+     * algorithms and should be multiplied directly.
+     */
+    public static final double MAX_DYNAMIC_RANGE = 1e4;
+
+    /**
+     * <code>double</code>: The largest magnitude for which the convolution of two
+     * integer sequences is rounded to exact integers.
+     */
+    private static final double MAX_EXACT_INTEGER = 0x1p40;
+
+    /**
+     * <code>int</code>: The subsequence length from which the three products in
+     * each step of Karatsuba's algorithm are calculated in parallel.
+     */
+    private static final int PARALLEL_LENGTH = 1024;
+
+    /**
+     * <code>int</code>: The shorter sequence length from which Karatsuba's
+     * algorithm is used instead of the schoolbook algorithm.
+     */
+    private static volatile int karatsubaThreshold = 64;
+
+    /**
+     * Retrieves the shorter sequence length from which Karatsuba's algorithm is
+     * used instead of the schoolbook algorithm.
+     *
+     * @return <code>int</code>: The crossover length.
+     */
+    public static final int getKaratsubaThreshold() {
+
+        return karatsubaThreshold;
+    }
+
+    /**
+     * Sets the shorter sequence length from which Karatsuba's algorithm is used
+     * instead of the schoolbook algorithm.
+     *
+     * @param threshold <code>int</code>: The crossover length, which is at least
+     *                  <code>2</code>.
+     */
+    public static final void setKaratsubaThreshold(int threshold) {
+
+        karatsubaThreshold = Math.max(threshold, 2);
+    }
+
+    /**
+     * <code>int</code>: The shorter sequence length from which the fast Fourier
+     * transform is used instead of Karatsuba's algorithm.
+     */
+    private static volatile int fftThreshold = 512;
+
+    /**
+     * Retrieves the shorter sequence length from which the fast Fourier transform
+     * is used instead of Karatsuba's algorithm.
+     *
+     * @return <code>int</code>: The crossover length.
+     */
+    public static final int getFFTThreshold() {
+
+        return fftThreshold;
+    }
+
+    /**
+     * Sets the shorter sequence length from which the fast Fourier transform is
+     * used instead of Karatsuba's algorithm.
+     *
+     * @param threshold <code>int</code>: The crossover length, which is at least
+     *                  <code>2</code>.
+     */
+    public static final void setFFTThreshold(int threshold) {
+
+        fftThreshold = Math.max(threshold, 2);
+    }
+
+    private Convolution() {
+    }
+
+    /**
+     * Calculates the convolution of two sequences, choosing the algorithm from the
+     * length of the shorter sequence.
+     *
+     * @param a <code>double[]</code>: The first sequence.
+     * @param b <code>double[]</code>: The second sequence.
+     * @return <code>double[]</code>: The convolution, of length
+     *         <code>a.length + b.length - 1</code>.
+     */
+    public static final double[] convolve(double[] a, double[] b) {
+
+        int n = Math.min(a.length, b.length);
+
+        if (n < karatsubaThreshold) {
+
+            return schoolbook(a, b);
+        }
+
+        if (n < fftThreshold) {
+
+            return karatsuba(a, b);
+        }
+
+        return fft(a, b);
+    }
+
+    /**
+     * Estimates the number of multiply-add operations the convolution of two
+     * sequences of given lengths costs with the algorithm
+     * <code>convolve</code> would choose.
+     *
+     * @param la <code>int</code>: The length of the first sequence.
+     * @param lb <code>int</code>: The length of the second sequence.
+     * @return <code>double</code>: The estimated cost.
+     */
+    public static final double cost(int la, int lb) {
+
+        int n = Math.min(la, lb);
+        int m = Math.max(la, lb);
+
+        int k = karatsubaThreshold;
+        if (n < k) {
+
+            return (double) la * lb;
+        }
+
+        if (n < fftThreshold) {
+
+            // Each chunk of the longer sequence costs 3^(log2(n/k)) base cases.
+            double chunks = Math.ceil((double) m / n);
+            return chunks * k * k * Math.pow((double) n / k, Math.log(3) / Math.log(2));
+        }
+
+        int size = Integer.highestOneBit(la + lb - 1) << 1;
+        return 6.0 * size * (Math.log(size) / Math.log(2));
+    }
+
+    /**
+     * Calculates the ratio between the largest and smallest non-zero magnitudes
+     * across one or more sequences.
+     *
+     * @param sequences <code>double[]...</code>: The sequences.
+     * @return <code>double</code>: The calculated ratio, or <code>1.0</code> if the
+     *         sequences are entirely <code>0.0</code>.
+     */
+    public static final double dynamicRange(double[]... sequences) {
+
+        double max = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        for (double[] a : sequences) {
+
+            for (double v : a) {
+
+                double abs = Math.abs(v);
+                if (abs != 0.0) {
+
+                    max = Math.max(max, abs);
+                    min = Math.min(min, abs);
+                }
+            }
+        }
+
+        return max == 0.0 ? 1.0 : max / min;
+    }
+
+    /**
+     * Calculates the convolution of two sequences directly, skipping the zero
+     * values of the first sequence.
+     *
+     * @param a <code>double[]</code>: The first sequence.
+     * @param b <code>double[]</code>: The second sequence.
+     * @return <code>double[]</code>: The convolution, of length
+     *         <code>a.length + b.length - 1</code>.
+     */
+    public static final double[] schoolbook(double[] a, double[] b) {
+
+        if (a.length == 0 || b.length == 0) {
+
+            return new double[0];
+        }
+
+        double[] c = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+
+            double v = a[i];
+            if (v == 0.0) {
+
+                continue;
+            }
+
+            for (int j = 0; j < b.length; j++) {
+
+                c[i + j] += v * b[j];
+            }
+        }
+
+        return c;
+    }
+
+    /**
+     * Calculates the convolution of two sequences through Karatsuba's algorithm.
+     * The longer sequence is split into chunks the length of the shorter, and each
+     * chunk is multiplied recursively by splitting both halves and replacing four
+     * half-length products with three.
+     *
+     * @param a <code>double[]</code>: The first sequence.
+     * @param b <code>double[]</code>: The second sequence.
+     * @return <code>double[]</code>: The convolution, of length
+     *         <code>a.length + b.length - 1</code>.
+     */
+    public static final double[] karatsuba(double[] a, double[] b) {
+
+        return karatsuba(a, b, karatsubaThreshold);
+    }
+
+    /**
+     * Calculates the convolution of two sequences through Karatsuba's algorithm
+     * with a given base case length.
+     *
+     * @param a    <code>double[]</code>: The first sequence.
+     * @param b    <code>double[]</code>: The second sequence.
+     * @param base <code>int</code>: The length below which chunks are multiplied
+     *             directly.
+     * @return <code>double[]</code>: The convolution, of length
+     *         <code>a.length + b.length - 1</code>.
+     */
+    private static double[] karatsuba(double[] a, double[] b, int base) {
+
+        if (a.length == 0 || b.length == 0) {
+
+            return new double[0];
+        }
+
+        if (a.length < b.length) {
+
+            double[] t = a;
+            a = b;
+            b = t;
+        }
+
+        int n = b.length;
+
+        double[] c = new double[a.length + b.length - 1];
+        double[] chunk = new double[n];
+        double[] product = new double[2 * n - 1];
+
+        for (int start = 0; start < a.length; start += n) {
+
+            int length = Math.min(n, a.length - start);
+            Arrays.fill(chunk, 0.0);
+            System.arraycopy(a, start, chunk, 0, length);
+
+            Arrays.fill(product, 0.0);
+            karatsubaIterate(chunk, 0, b, 0, n, product, 0, base);
+
+            for (int i = 0; i < length + n - 1; i++) {
+
+                c[start + i] += product[i];
+            }
+        }
+
+        clean(c, a, b);
+        return c;
+    }
+
+    /**
+     * Adds the product of two equal length subsequences to a subsequence of the
+     * result.
+     *
+     * @param a    <code>double[]</code>: The first sequence.
+     * @param aOff <code>int</code>: The start of the subsequence of the first
+     *             sequence.
+     * @param b    <code>double[]</code>: The second sequence.
+     * @param bOff <code>int</code>: The start of the subsequence of the second
+     *             sequence.
+     * @param n    <code>int</code>: The length of both subsequences.
+     * @param c    <code>double[]</code>: The result.
+     * @param cOff <code>int</code>: The start of the subsequence of the result.
+     * @param base <code>int</code>: The length below which subsequences are
+     *             multiplied directly.
+     */
+    private static void karatsubaIterate(double[] a, int aOff, double[] b, int bOff, int n, double[] c, int cOff,
+            int base) {
+
+        if (n < base || n < 2) {
+
+            for (int i = 0; i < n; i++) {
+
+                double v = a[aOff + i];
+                if (v == 0.0) {
+
+                    continue;
+                }
+
+                for (int j = 0; j < n; j++) {
+
+                    c[cOff + i + j] += v * b[bOff + j];
+                }
+            }
+
+            return;
+        }
+
+        // a = a0 + x^m a1, b = b0 + x^m b1
+        int m = n / 2;
+        int h = n - m;
+
+        // z1 = (a0 + a1)(b0 + b1) - z0 - z2
+        double[] sa = new double[h];
+        double[] sb = new double[h];
+        for (int i = 0; i < h; i++) {
+
+            sa[i] = a[aOff + m + i] + (i < m ? a[aOff + i] : 0.0);
+            sb[i] = b[bOff + m + i] + (i < m ? b[bOff + i] : 0.0);
+        }
+
+        // z0 = a0 b0, z2 = a1 b1
+        double[] z0 = new double[2 * m - 1];
+        double[] z2 = new double[2 * h - 1];
+        double[] z1 = new double[2 * h - 1];
+
+        // The three products are independent, so large ones are forked.
+        Runnable low = () -> karatsubaIterate(a, aOff, b, bOff, m, z0, 0, base);
+        Runnable high = () -> karatsubaIterate(a, aOff + m, b, bOff + m, h, z2, 0, base);
+        Runnable middle = () -> karatsubaIterate(sa, 0, sb, 0, h, z1, 0, base);
+        if (n >= PARALLEL_LENGTH) {
+
+            ForkJoinTask.invokeAll(ForkJoinTask.adapt(low), ForkJoinTask.adapt(high), ForkJoinTask.adapt(middle));
+        } else {
+
+            low.run();
+            high.run();
+            middle.run();
+        }
+
+        for (int i = 0; i < z0.length; i++) {
+
+            z1[i] -= z0[i];
+            c[cOff + i] += z0[i];
+        }
+
+        for (int i = 0; i < z2.length; i++) {
+
+            z1[i] -= z2[i];
+            c[cOff + 2 * m + i] += z2[i];
+        }
+
+        for (int i = 0; i < z1.length; i++) {
+
+            c[cOff + m + i] += z1[i];
+        }
+    }
+
+    /**
+     * Calculates the convolution of two sequences through the fast Fourier
+     * transform. Both sequences are packed into the real and imaginary components
+     * of a single complex sequence, so the convolution costs two transforms.
+     *
+     * @param a <code>double[]</code>: The first sequence.
+     * @param b <code>double[]</code>: The second sequence.
+     * @return <code>double[]</code>: The convolution, of length
+     *         <code>a.length + b.length - 1</code>.
+     */
+    public static final double[] fft(double[] a, double[] b) {
+
+        if (a.length == 0 || b.length == 0) {
+
+            return new double[0];
+        }
+
+        int length = a.length + b.length - 1;
+        int size = Integer.highestOneBit(length);
+        if (size < length) {
+
+            size <<= 1;
+        }
+
+        // z = a + ib
+        double[] zr = Arrays.copyOf(a, size);
+        double[] zi = Arrays.copyOf(b, size);
+        FFT.transform(zr, zi, false);
+
+        // A[k] = (Z[k] + conj(Z[-k]))/2, B[k] = (Z[k] - conj(Z[-k]))/2i, P[k] = A[k]B[k]
+        double[] pr = new double[size];
+        double[] pi = new double[size];
+        for (int k = 0; k < size; k++) {
+
+            int j = (size - k) & (size - 1);
+
+            double cr = zr[j];
+            double ci = -zi[j];
+
+            double ar = (zr[k] + cr) / 2.0;
+            double ai = (zi[k] + ci) / 2.0;
+            double br = (zi[k] - ci) / 2.0;
+            double bi = -(zr[k] - cr) / 2.0;
+
+            pr[k] = ar * br - ai * bi;
+            pi[k] = ar * bi + ai * br;
+        }
+
+        FFT.transform(pr, pi, true);
+
+        double[] c = new double[length];
+        for (int k = 0; k < length; k++) {
+
+            c[k] = pr[k] / size;
+        }
+
+        clean(c, a, b);
+        return c;
+    }
+
+    /**
+     * Removes the rounding noise from a fast convolution. Coefficients within the
+     * tolerance of <code>0.0</code> are set to <code>0.0</code>, and the
+     * convolution of two integer sequences is rounded to integers when that is
+     * exact.
+     *
+     * @param c <code>double[]</code>: The convolution to clean.
+     * @param a <code>double[]</code>: The first sequence.
+     * @param b <code>double[]</code>: The second sequence.
+     */
+    private static void clean(double[] c, double[] a, double[] b) {
+
+        double maxA = 0.0;
+        boolean integers = true;
+        for (double v : a) {
+
+            maxA = Math.max(maxA, Math.abs(v));
+            integers &= v == Math.rint(v);
+        }
+
+        double maxB = 0.0;
+        for (double v : b) {
+
+            maxB = Math.max(maxB, Math.abs(v));
+            integers &= v == Math.rint(v);
+        }
+
+        double scale = maxA * maxB * Math.min(a.length, b.length);
+        double noise = TOLERANCE * scale;
+
+        for (int k = 0; k < c.length; k++) {
+
+            if (integers && scale <= MAX_EXACT_INTEGER) {
+
+                c[k] = Math.rint(c[k]);
+            } else if (Math.abs(c[k]) <= noise) {
+
+                c[k] = 0.0;
+            }
+        }
+    }
+
+    /**
+     * Recalibrates the crossover lengths between the algorithms by timing them
+     * against each other on random sequences of doubling length. The Karatsuba
+     * crossover is the first length at which one level of Karatsuba's algorithm
+     * beats the schoolbook algorithm, and the fast Fourier transform crossover is
+     * the first length at which it beats Karatsuba's algorithm.
+     *
+     * @return <code>int[]</code>: The new Karatsuba and fast Fourier transform
+     *         crossover lengths.
+     */
+    public static final int[] calibrate() {
+
+        Random random = new Random(0);
+
+        // Warm up each algorithm so that the comparisons time compiled code.
+        double[] x = random.doubles(256).toArray();
+        double[] y = random.doubles(256).toArray();
+        time(() -> schoolbook(x, y));
+        time(() -> karatsuba(x, y, 32));
+        time(() -> fft(x, y));
+
+        int karatsuba = 0;
+        for (int n = 8; n <= 1024 && karatsuba == 0; n *= 2) {
+
+            double[] a = random.doubles(n).toArray();
+            double[] b = random.doubles(n).toArray();
+
+            final int base = n;
+            long direct = time(() -> schoolbook(a, b));
+            long split = time(() -> karatsuba(a, b, base));
+            if (split < direct) {
+
+                karatsuba = n;
+            }
+        }
+        setKaratsubaThreshold(karatsuba == 0 ? 1024 : karatsuba);
+
+        int fft = 0;
+        for (int n = 32; n <= 1 << 16 && fft == 0; n *= 2) {
+
+            double[] a = random.doubles(n).toArray();
+            double[] b = random.doubles(n).toArray();
+
+            long split = time(() -> karatsuba(a, b));
+            long transform = time(() -> fft(a, b));
+            if (transform < split) {
+
+                fft = n;
+            }
+        }
+        setFFTThreshold(fft == 0 ? 1 << 16 : fft);
+
+        return new int[] { karatsubaThreshold, fftThreshold };
+    }
+
+    /**
+     * Measures the fastest of several runs of a calculation.
+     *
+     * @param calculation <code>Runnable</code>: The calculation to time.
+     * @return <code>long</code>: The fastest time, in nanoseconds.
+     */
+    private static long time(Runnable calculation) {
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 7; i++) {
+
+            long start = System.nanoTime();
+            calculation.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return best;
+    }
+}
@@ -0,0 +1,316 @@
+package com.troxell.mat;
+
+/**
+ * <code>FFT</code>: A class containing in-place fast Fourier transforms of
+ * complex sequences of any length. Power-of-two lengths use an iterative
+ * radix-2 transform, composite lengths are split recursively by their smallest
+ * prime factor, and large prime lengths are re-expressed as a power-of-two
+ * convolution (Bluestein's algorithm), so that every length is transformed in
+ * <code>O(n log n)</code> time.
+ */
+public final class FFT {
+
+    /**
+     * <code>int</code>: The largest prime length which is transformed directly
+     * rather than through Bluestein's algorithm.
+     */
+    private static final int DIRECT_PRIME_LENGTH = 32;
+
+    private FFT() {
+    }
+
+    /**
+     * Calculates the discrete Fourier transform of a complex sequence in place.
+     * The forward transform calculates
+     * <code>X[k] = sum(x[j] * e^(-2*pi*i*j*k/n))</code>, and the inverse transform
+     * calculates <code>X[k] = sum(x[j] * e^(2*pi*i*j*k/n))</code>. Neither
+     * transform is scaled by <code>1/n</code>.
+     *
+     * @param re      <code>double[]</code>: The real components of the sequence.
+     * @param im      <code>double[]</code>: The imaginary components of the
+     *                sequence.
+     * @param inverse <code>boolean</code>: Whether or not to calculate the inverse
+     *                transform.
+     */
+    public static final void transform(double[] re, double[] im, boolean inverse) {
+
+        int n = re.length;
+        if (n <= 1) {
+
+            return;
+        }
+
+        double sign = inverse ? 1.0 : -1.0;
+
+        if ((n & (n - 1)) == 0) {
+
+            radix2(re, im, sign);
+            return;
+        }
+
+        int p = smallestFactor(n);
+        if (p == n) {
+
+            if (n <= DIRECT_PRIME_LENGTH) {
+
+                direct(re, im, sign);
+            } else {
+
+                bluestein(re, im, sign);
+            }
+            return;
+        }
+
+        mixedRadix(re, im, p, sign);
+    }
+
+    /**
+     * Calculates the transform of a power-of-two length sequence in place using
+     * the iterative radix-2 algorithm.
+     *
+     * @param re   <code>double[]</code>: The real components of the sequence.
+     * @param im   <code>double[]</code>: The imaginary components of the sequence.
+     * @param sign <code>double</code>: The sign of the exponent.
+     */
+    private static void radix2(double[] re, double[] im, double sign) {
+
+        int n = re.length;
+
+        // Reorder the sequence by bit-reversed index.
+        for (int i = 1, j = 0; i < n; i++) {
+
+            int bit = n >> 1;
+            while ((j & bit) != 0) {
+
+                j ^= bit;
+                bit >>= 1;
+            }
+            j |= bit;
+
+            if (i < j) {
+
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+
+        // Tabulate the twiddle factors once for the full length.
+        int half = n >> 1;
+        double[] cos = new double[half];
+        double[] sin = new double[half];
+        for (int k = 0; k < half; k++) {
+
+            double angle = sign * 2.0 * Math.PI * k / n;
+            cos[k] = Math.cos(angle);
+            sin[k] = Math.sin(angle);
+        }
+
+        for (int length = 2; length <= n; length <<= 1) {
+
+            int halfLength = length >> 1;
+            int step = n / length;
+
+            for (int start = 0; start < n; start += length) {
+
+                for (int k = 0; k < halfLength; k++) {
+
+                    double wr = cos[k * step];
+                    double wi = sin[k * step];
+
+                    int a = start + k;
+                    int b = a + halfLength;
+
+                    double xr = re[b] * wr - im[b] * wi;
+                    double xi = re[b] * wi + im[b] * wr;
+
+                    re[b] = re[a] - xr;
+                    im[b] = im[a] - xi;
+                    re[a] += xr;
+                    im[a] += xi;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the transform of a composite length sequence in place by
+     * splitting it into <code>p</code> interleaved subsequences, transforming each,
+     * and recombining them.
+     *
+     * @param re   <code>double[]</code>: The real components of the sequence.
+     * @param im   <code>double[]</code>: The imaginary components of the sequence.
+     * @param p    <code>int</code>: The smallest prime factor of the length.
+     * @param sign <code>double</code>: The sign of the exponent.
+     */
+    private static void mixedRadix(double[] re, double[] im, int p, double sign) {
+
+        int n = re.length;
+        int m = n / p;
+
+        // Transform each subsequence x[r], x[r + p], x[r + 2p], ...
+        double[][] subRe = new double[p][m];
+        double[][] subIm = new double[p][m];
+        for (int r = 0; r < p; r++) {
+
+            for (int j = 0; j < m; j++) {
+
+                subRe[r][j] = re[j * p + r];
+                subIm[r][j] = im[j * p + r];
+            }
+
+            transform(subRe[r], subIm[r], sign > 0);
+        }
+
+        // X[k] = sum over r of e^(sign*2*pi*i*r*k/n) * X_r[k mod m]
+        for (int k = 0; k < n; k++) {
+
+            int kMod = k % m;
+
+            double sumRe = 0.0;
+            double sumIm = 0.0;
+            for (int r = 0; r < p; r++) {
+
+                double angle = sign * 2.0 * Math.PI * ((long) r * k % n) / n;
+                double wr = Math.cos(angle);
+                double wi = Math.sin(angle);
+
+                sumRe += subRe[r][kMod] * wr - subIm[r][kMod] * wi;
+                sumIm += subRe[r][kMod] * wi + subIm[r][kMod] * wr;
+            }
+
+            re[k] = sumRe;
+            im[k] = sumIm;
+        }
+    }
+
+    /**
+     * Calculates the transform of a short sequence in place directly from its
+     * definition.
+     *
+     * @param re   <code>double[]</code>: The real components of the sequence.
+     * @param im   <code>double[]</code>: The imaginary components of the sequence.
+     * @param sign <code>double</code>: The sign of the exponent.
+     */
+    private static void direct(double[] re, double[] im, double sign) {
+
+        int n = re.length;
+
+        double[] newRe = new double[n];
+        double[] newIm = new double[n];
+        for (int k = 0; k < n; k++) {
+
+            for (int j = 0; j < n; j++) {
+
+                double angle = sign * 2.0 * Math.PI * ((long) j * k % n) / n;
+                double wr = Math.cos(angle);
+                double wi = Math.sin(angle);
+
+                newRe[k] += re[j] * wr - im[j] * wi;
+                newIm[k] += re[j] * wi + im[j] * wr;
+            }
+        }
+
+        System.arraycopy(newRe, 0, re, 0, n);
+        System.arraycopy(newIm, 0, im, 0, n);
+    }
+
+    /**
+     * Calculates the transform of a sequence of any length in place by expressing
+     * it as a convolution with a chirp, which is calculated using power-of-two
+     * transforms.
+     *
+     * @param re   <code>double[]</code>: The real components of the sequence.
+     * @param im   <code>double[]</code>: The imaginary components of the sequence.
+     * @param sign <code>double</code>: The sign of the exponent.
+     */
+    private static void bluestein(double[] re, double[] im, double sign) {
+
+        int n = re.length;
+
+        int size = Integer.highestOneBit(2 * n - 1);
+        if (size < 2 * n - 1) {
+
+            size <<= 1;
+        }
+
+        // c[j] = e^(sign*pi*i*j^2/n), reducing j^2 modulo 2n to preserve accuracy.
+        double[] chirpRe = new double[n];
+        double[] chirpIm = new double[n];
+        for (int j = 0; j < n; j++) {
+
+            double angle = sign * Math.PI * ((long) j * j % (2L * n)) / n;
+            chirpRe[j] = Math.cos(angle);
+            chirpIm[j] = Math.sin(angle);
+        }
+
+        // a[j] = x[j] * c[j]
+        double[] aRe = new double[size];
+        double[] aIm = new double[size];
+        for (int j = 0; j < n; j++) {
+
+            aRe[j] = re[j] * chirpRe[j] - im[j] * chirpIm[j];
+            aIm[j] = re[j] * chirpIm[j] + im[j] * chirpRe[j];
+        }
+
+        // b[m] = conj(c[|m|]), wrapped around for negative m.
+        double[] bRe = new double[size];
+        double[] bIm = new double[size];
+        bRe[0] = chirpRe[0];
+        bIm[0] = -chirpIm[0];
+        for (int j = 1; j < n; j++) {
+
+            bRe[j] = bRe[size - j] = chirpRe[j];
+            bIm[j] = bIm[size - j] = -chirpIm[j];
+        }
+
+        radix2(aRe, aIm, -1.0);
+        radix2(bRe, bIm, -1.0);
+        for (int k = 0; k < size; k++) {
+
+            double r = aRe[k] * bRe[k] - aIm[k] * bIm[k];
+            aIm[k] = aRe[k] * bIm[k] + aIm[k] * bRe[k];
+            aRe[k] = r;
+        }
+        radix2(aRe, aIm, 1.0);
+
+        // X[k] = c[k] * (a * b)[k]
+        for (int k = 0; k < n; k++) {
+
+            double r = aRe[k] / size;
+            double i = aIm[k] / size;
+
+            re[k] = r * chirpRe[k] - i * chirpIm[k];
+            im[k] = r * chirpIm[k] + i * chirpRe[k];
+        }
+    }
+
+    /**
+     * Calculates the smallest prime factor of an integer.
+     *
+     * @param n <code>int</code>: The integer to factor.
+     * @return <code>int</code>: The smallest prime factor, or <code>n</code> if
+     *         <code>n</code> is prime.
+     */
+    private static int smallestFactor(int n) {
+
+        if (n % 2 == 0) {
+
+            return 2;
+        }
+
+        for (int p = 3; (long) p * p <= n; p += 2) {
+
+            if (n % p == 0) {
+
+                return p;
+            }
+        }
+
+        return n;
+    }
+}
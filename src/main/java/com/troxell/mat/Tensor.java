@@ -1,7 +1,9 @@
 package com.troxell.mat;
 
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
+import com.troxell.numbers.Complex;
 import com.troxell.numbers.MatNumber;
 import com.troxell.numbers.Real;
 
@@ -79,9 +81,65 @@ public final class Tensor {
         return data[i];
     }
 
+    /**
+     * Determines whether or not every number contained within this
+     * <code>Tensor</code> instance is real.
+     *
+     * @return <code>boolean</code>: Whether or not every imaginary component is
+     *         <code>0.0</code>.
+     */
+    public final boolean isReal() {
+
+        for (MatNumber num : data) {
+
+            if (num.imag() != 0.0) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Retrieves the real components of the numbers contained within this
+     * <code>Tensor</code> instance.
+     *
+     * @return <code>double[]</code>: The real components, constructed using
+     *         dimension iteration.
+     */
+    public final double[] getReal() {
+
+        double[] re = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+
+            re[i] = data[i].real();
+        }
+
+        return re;
+    }
+
+    /**
+     * Retrieves the imaginary components of the numbers contained within this
+     * <code>Tensor</code> instance.
+     *
+     * @return <code>double[]</code>: The imaginary components, constructed using
+     *         dimension iteration.
+     */
+    public final double[] getImag() {
+
+        double[] im = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+
+            im[i] = data[i].imag();
+        }
+
+        return im;
+    }
+
     /**
      * Creates a new instance of the <code>Tensor</code> class.
-     * 
+     *
      * @param dimensions <code>int[]</code>: The dimensions of this
      *                   <code>Tensor</code> instance.
      */
@@ -136,7 +194,7 @@ public final class Tensor {
 
         tensor = tensor.resize(newDims);
 
-        MatNumber[] newData = resize(newDims).data;
+        MatNumber[] newData = resize(newDims).data.clone();
         for (int i = 0; i < newData.length; i++) {
 
             newData[i] = newData[i].add(tensor.data[i]);
@@ -158,7 +216,7 @@ public final class Tensor {
 
         tensor = tensor.resize(newDims);
 
-        MatNumber[] newData = resize(newDims).data;
+        MatNumber[] newData = resize(newDims).data.clone();
         for (int i = 0; i < newData.length; i++) {
 
             newData[i] = newData[i].subtract(tensor.data[i]);
@@ -459,6 +517,25 @@ public final class Tensor {
      */
     public static final Tensor modeProduct(Matrix matrix, Tensor tensor, int mode) {
 
+        return modeProduct(matrix, tensor, mode, false);
+    }
+
+    /**
+     * Calculates the mode product between a <code>Matrix</code> instance and a
+     * <code>Tensor</code> instance along a specified mode, optionally multiplying
+     * the strands of the <code>tensor</code> parameter in parallel. Each strand is
+     * written by exactly one task, so the result does not depend on the
+     * <code>parallel</code> parameter.
+     * 
+     * @param matrix   <code>Matrix</code>: The matrix to multiply.
+     * @param tensor   <code>Tensor</code>: The tensor to multiply by.
+     * @param mode     <code>int</code>: The mode to multiply along.
+     * @param parallel <code>boolean</code>: Whether or not the strands should be
+     *                 multiplied in parallel.
+     * @return <code>Tensor</code>: The resulting tensor.
+     */
+    public static final Tensor modeProduct(Matrix matrix, Tensor tensor, int mode, boolean parallel) {
+
         if (mode < 0 || mode >= tensor.dimensions.length) {
 
             return null;
@@ -477,21 +554,46 @@ public final class Tensor {
 
         MatNumber[] resultData = new MatNumber[product(newDimensions)];
         Arrays.fill(resultData, MatNumber.ZERO);
+        if (M == 0 || L == 0) {
+
+            return new Tensor(newDimensions, resultData);
+        }
+
+        // Consecutive values of a strand are separated by the product of the
+        // dimensions before the mode.
+        int stride = 1;
+        for (int i = 0; i < mode; i++) {
+
+            stride *= tensor.dimensions[i];
+        }
+
+        final int step = stride;
+        int strands = tensor.data.length / M;
 
-        int[] indices = new int[tensor.dimensions.length];
-        tensor.iterateMode(0, indices, mode, ind -> {
+        IntStream range = IntStream.range(0, strands);
+        if (parallel) {
+
+            range = range.parallel();
+        }
+
+        range.forEach(strand -> {
+
+            // Split the strand number into the indices before and after the mode.
+            int lower = strand % step;
+            int upper = strand / step;
+
+            int oldStart = lower + upper * step * M;
+            int newStart = lower + upper * step * L;
 
             for (int l = 0; l < L; l++) {
 
                 MatNumber sum = MatNumber.ZERO;
                 for (int m = 0; m < M; m++) {
 
-                    ind[mode] = m;
-                    sum = sum.add(tensor.data[index(ind, tensor.dimensions)].multiply(matrix.get(l, m)));
+                    sum = sum.add(tensor.data[oldStart + m * step].multiply(matrix.get(l, m)));
                 }
 
-                ind[mode] = l;
-                resultData[index(ind, newDimensions)] = sum;
+                resultData[newStart + l * step] = sum;
             }
         });
 
@@ -499,44 +601,74 @@ public final class Tensor {
     }
 
     /**
-     * <code>IndexConsumer</code>: A functional interface used to perform an
-     * operation on each index of this <code>Tensor</code> instance.
+     * Calculates the discrete Fourier transform of each strand of this
+     * <code>Tensor</code> instance along a specified mode. Each strand is first
+     * wrapped to the transform length, so that the value at index <code>j</code>
+     * contributes to index <code>j mod n</code>; the inverse transform of a strand
+     * of polynomial coefficients is then its polynomial evaluated at each of the
+     * <code>n</code>th roots of unity.
+     *
+     * @param mode    <code>int</code>: The mode to transform along.
+     * @param n       <code>int</code>: The length of the transform.
+     * @param inverse <code>boolean</code>: Whether or not to calculate the
+     *                (unscaled) inverse transform.
+     * @return <code>Tensor</code>: The resulting tensor, whose values are
+     *         <code>Complex</code> numbers.
      */
-    @FunctionalInterface
-    private interface IndexConsumer {
+    public final Tensor dft(int mode, int n, boolean inverse) {
 
-        void accept(int[] indices);
-    }
+        if (mode < 0 || mode >= dimensions.length || n <= 0) {
 
-    /**
-     * Iterates along each dimension of this <code>Tensor</code> instance except for
-     * the provided mode.
-     * 
-     * @param dim      <code>int</code>: The current dimension.
-     * @param indices  <code>int[]</code>: The current indices.
-     * @param mode     <code>int</code>: The dimension to skip.
-     * @param consumer <code>IndexConsumer</code>: The function to call at the end
-     *                 of each iteration.
-     */
-    private void iterateMode(int dim, int[] indices, int mode, IndexConsumer consumer) {
+            return null;
+        }
 
-        if (dim >= dimensions.length) {
+        int M = dimensions[mode];
 
-            consumer.accept(indices);
-            return;
+        int[] newDimensions = dimensions.clone();
+        newDimensions[mode] = n;
+
+        MatNumber[] resultData = new MatNumber[product(newDimensions)];
+        if (resultData.length == 0) {
+
+            return new Tensor(newDimensions, resultData);
         }
 
-        if (dim == mode) {
+        int stride = 1;
+        for (int i = 0; i < mode; i++) {
 
-            iterateMode(dim + 1, indices, mode, consumer);
-            return;
+            stride *= dimensions[i];
         }
 
-        for (int i = 0; i < dimensions[dim]; i++) {
+        int strands = resultData.length / n;
+
+        double[] re = new double[n];
+        double[] im = new double[n];
+        for (int strand = 0; strand < strands; strand++) {
+
+            int lower = strand % stride;
+            int upper = strand / stride;
+
+            int oldStart = lower + upper * stride * M;
+            int newStart = lower + upper * stride * n;
 
-            indices[dim] = i;
-            iterateMode(dim + 1, indices, mode, consumer);
+            Arrays.fill(re, 0.0);
+            Arrays.fill(im, 0.0);
+            for (int m = 0; m < M; m++) {
+
+                MatNumber num = data[oldStart + m * stride];
+                re[m % n] += num.real();
+                im[m % n] += num.imag();
+            }
+
+            FFT.transform(re, im, inverse);
+
+            for (int k = 0; k < n; k++) {
+
+                resultData[newStart + k * stride] = new Complex(re[k], im[k]);
+            }
         }
+
+        return new Tensor(newDimensions, resultData);
     }
 
     /**